@@ -0,0 +1,31 @@
+package com.martinbechtle.jcanary.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * To be implemented by classes that perform health checks without blocking, for example with a non-blocking client.
+ * <p>
+ * The returned future should complete on the thread of such client, so that no thread waits for the dependency.
+ * The synchronous {@link #check()} is still available and blocks until the future completes.
+ *
+ * @author Martin Bechtle
+ */
+public interface AsyncHealthMonitor extends HealthMonitor {
+
+    CompletableFuture<HealthResult> checkAsync();
+
+    @Override
+    default HealthResult check() {
+
+        try {
+            return checkAsync().join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
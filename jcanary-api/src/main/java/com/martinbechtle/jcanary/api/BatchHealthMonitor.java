@@ -0,0 +1,25 @@
+package com.martinbechtle.jcanary.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * To be implemented by classes that check many {@link Dependency}s at once, for example all the schemas hosted by a
+ * database server with a single catalog query, rather than one {@link HealthMonitor} per dependency.
+ *
+ * @author Martin Bechtle
+ */
+public interface BatchHealthMonitor {
+
+    /**
+     * @return all the {@link Dependency}s checked by this monitor, with unique names and in the order in which they
+     * should be reported. Invoked once, on registration
+     */
+    List<Dependency> dependencies();
+
+    /**
+     * @return the result of each {@link Dependency} by its name. Dependencies without a result are reported with
+     * {@link DependencyStatus#UNKNOWN} status
+     */
+    Map<String, HealthResult> check();
+}
@@ -0,0 +1,310 @@
+package com.martinbechtle.jcanary.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.martinbechtle.jrequire.Require.notNull;
+
+/**
+ * Compact binary encoding of a {@link Canary}, an alternative to JSON for collectors polling many services.
+ * <p>
+ * Enums are written as their ordinals, numbers and lengths as varints, and every distinct dependency name and status
+ * text is written once in a dictionary, then referenced by index from the tweets. The layout is:
+ * <pre>
+ * 'J' 'C' FORMAT_VERSION
+ * serviceName                  varint length + UTF-8 bytes
+ * result                       1 byte, {@link CanaryResult} ordinal
+ * dictionary                   varint count, then each entry as varint length + UTF-8 bytes
+ * tweets                       varint count, then for each tweet:
+ *   dependency                 1 byte, {@link DependencyType} ordinal &lt;&lt; 2 | {@link DependencyImportance} ordinal
+ *   result                     1 byte, {@link DependencyStatus} ordinal &lt;&lt; 1 | cached
+ *   name                       varint dictionary index
+ *   statusText                 varint dictionary index
+ *   checkedAtMillis            zig-zag varint, difference from the checkedAtMillis of the previous tweet
+ *   durationNanos              varint
+ * </pre>
+ * As ordinals are part of the format, new enum constants must only ever be appended.
+ *
+ * @author Martin Bechtle
+ */
+public final class CanaryCodec {
+
+    /**
+     * Media type to send in the Accept header to be served this encoding
+     */
+    public static final String MEDIA_TYPE = "application/vnd.jcanary.canary+binary";
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {'J', 'C'};
+
+    private static final CanaryResult[] CANARY_RESULTS = CanaryResult.values();
+
+    private static final DependencyImportance[] IMPORTANCES = DependencyImportance.values();
+
+    private static final DependencyType[] TYPES = DependencyType.values();
+
+    private static final DependencyStatus[] STATUSES = DependencyStatus.values();
+
+    private CanaryCodec() {
+
+    }
+
+    /**
+     * @param canary mandatory
+     * @return the encoded canary
+     */
+    public static byte[] encode(Canary canary) {
+
+        notNull(canary, "canary");
+
+        List<HealthTweet> tweets = canary.getTweets();
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        for (HealthTweet tweet : tweets) {
+            addToDictionary(dictionary, entries, tweet.getDependency().getName());
+            addToDictionary(dictionary, entries, tweet.getResult().getStatusText());
+        }
+
+        Writer writer = new Writer(32 + 16 * tweets.size());
+        writer.writeBytes(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeString(canary.getServiceName());
+        writer.writeByte(canary.getResult().ordinal());
+
+        writer.writeVarint(entries.size());
+        for (String entry : entries) {
+            writer.writeString(entry);
+        }
+
+        writer.writeVarint(tweets.size());
+        long previousCheckedAtMillis = 0;
+        for (HealthTweet tweet : tweets) {
+            Dependency dependency = tweet.getDependency();
+            HealthResult result = tweet.getResult();
+            writer.writeByte(dependency.getType().ordinal() << 2 | dependency.getImportance().ordinal());
+            writer.writeByte(result.getStatus().ordinal() << 1 | (tweet.isCached() ? 1 : 0));
+            writer.writeVarint(dictionary.get(dependency.getName()));
+            writer.writeVarint(dictionary.get(result.getStatusText()));
+            writer.writeZigZag(tweet.getCheckedAtMillis() - previousCheckedAtMillis);
+            writer.writeVarint(tweet.getDurationNanos());
+            previousCheckedAtMillis = tweet.getCheckedAtMillis();
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * @param bytes mandatory, as produced by {@link #encode(Canary)}
+     * @return the decoded canary
+     * @throws IllegalArgumentException if the bytes are not an encoded canary, or were encoded in a newer format
+     */
+    public static Canary decode(byte[] bytes) {
+
+        notNull(bytes, "bytes");
+        try {
+            return read(new Reader(bytes));
+        }
+        catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed canary: truncated input", e);
+        }
+    }
+
+    private static Canary read(Reader reader) {
+
+        if (reader.readByte() != MAGIC[0] || reader.readByte() != MAGIC[1]) {
+            throw new IllegalArgumentException("Malformed canary: not a binary canary");
+        }
+        int formatVersion = reader.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary canary format version " + formatVersion);
+        }
+        String serviceName = reader.readString();
+        CanaryResult canaryResult = valueOf(CANARY_RESULTS, reader.readByte());
+
+        String[] dictionary = new String[reader.readLength()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = reader.readString();
+        }
+
+        int tweetCount = reader.readLength();
+        List<HealthTweet> tweets = new ArrayList<>(tweetCount);
+        long checkedAtMillis = 0;
+        for (int i = 0; i < tweetCount; i++) {
+            int dependencyByte = reader.readByte();
+            int resultByte = reader.readByte();
+            Dependency dependency = new Dependency(
+                    valueOf(IMPORTANCES, dependencyByte & 0x3),
+                    valueOf(TYPES, dependencyByte >>> 2),
+                    valueOf(dictionary, reader.readIndex()));
+            HealthResult result = HealthResult.of(
+                    valueOf(STATUSES, resultByte >>> 1),
+                    valueOf(dictionary, reader.readIndex()));
+            checkedAtMillis += reader.readZigZag();
+            long durationNanos = reader.readVarint();
+            tweets.add(new HealthTweet(dependency, result, checkedAtMillis, durationNanos, (resultByte & 1) == 1));
+        }
+        if (reader.remaining() > 0) {
+            throw new IllegalArgumentException("Malformed canary: " + reader.remaining() + " trailing bytes");
+        }
+
+        switch (canaryResult) {
+            case FORBIDDEN:
+                return Canary.forbidden(serviceName);
+            case ERROR:
+                return Canary.error(serviceName);
+            default:
+                return Canary.ok(serviceName, tweets);
+        }
+    }
+
+    private static void addToDictionary(Map<String, Integer> dictionary, List<String> entries, String entry) {
+
+        if (!dictionary.containsKey(entry)) {
+            dictionary.put(entry, entries.size());
+            entries.add(entry);
+        }
+    }
+
+    private static <T> T valueOf(T[] values, int index) {
+
+        if (index >= values.length) {
+            throw new IllegalArgumentException(String.format("Malformed canary: index %d out of %d", index,
+                    values.length));
+        }
+        return values[index];
+    }
+
+    private static class Writer {
+
+        private byte[] buffer;
+
+        private int position;
+
+        private Writer(int initialCapacity) {
+
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void writeByte(int value) {
+
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeVarint(long value) {
+
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeZigZag(long value) {
+
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        private void writeString(String value) {
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes);
+        }
+
+        private void ensureCapacity(int length) {
+
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private byte[] toByteArray() {
+
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static class Reader {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private Reader(byte[] bytes) {
+
+            this.bytes = bytes;
+        }
+
+        private int readByte() {
+
+            return bytes[position++] & 0xFF;
+        }
+
+        private long readVarint() {
+
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed canary: varint too long");
+        }
+
+        private long readZigZag() {
+
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /**
+         * Reads a varint used as a length or count, which can never exceed the remaining input as every counted
+         * element takes at least one byte: checking it spares allocating huge arrays for malformed input
+         */
+        private int readLength() {
+
+            long length = readVarint();
+            if (length < 0 || length > remaining()) {
+                throw new IllegalArgumentException("Malformed canary: length " + length + " exceeds input");
+            }
+            return (int) length;
+        }
+
+        private int readIndex() {
+
+            long index = readVarint();
+            if (index < 0 || index > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Malformed canary: index " + index + " too big");
+            }
+            return (int) index;
+        }
+
+        private String readString() {
+
+            int length = readLength();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private int remaining() {
+
+            return bytes.length - position;
+        }
+    }
+}
@@ -3,17 +3,30 @@ package com.martinbechtle.jcanary.api;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-import java.util.Optional;
+import java.util.EnumMap;
+import java.util.Map;
 
 import static com.martinbechtle.jrequire.Require.notNull;
 
 /**
  * Result returned by {@link HealthMonitor}
+ * <p>
+ * Immutable: results without status text are shared constants, so that monitors reporting them on every check do not
+ * allocate a new one each time.
  *
  * @author Martin Bechtle
  */
 public class HealthResult {
 
+    private static final Map<DependencyStatus, HealthResult> WITHOUT_STATUS_TEXT =
+            new EnumMap<>(DependencyStatus.class);
+
+    static {
+        for (DependencyStatus status : DependencyStatus.values()) {
+            WITHOUT_STATUS_TEXT.put(status, new HealthResult(status, ""));
+        }
+    }
+
     private final DependencyStatus status;
 
     private final String statusText;
@@ -26,14 +39,15 @@ public class HealthResult {
 
     public static HealthResult of(DependencyStatus status, String statusText) {
 
-        return new HealthResult(
-                notNull(status, "status"),
-                Optional.ofNullable(statusText).orElse(""));
+        notNull(status, "status");
+        return statusText == null || statusText.isEmpty()
+                ? WITHOUT_STATUS_TEXT.get(status)
+                : new HealthResult(status, statusText);
     }
 
     public static HealthResult ok() {
 
-        return HealthResult.of(DependencyStatus.HEALTHY, null);
+        return WITHOUT_STATUS_TEXT.get(DependencyStatus.HEALTHY);
     }
 
     public DependencyStatus getStatus() {
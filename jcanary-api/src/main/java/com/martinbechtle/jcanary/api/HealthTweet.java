@@ -7,6 +7,10 @@ import static com.martinbechtle.jrequire.Require.notNull;
 
 /**
  * Final result of a health check. Pairs a {@link HealthResult} with the {@link Dependency} under test.
+ * <p>
+ * Also carries some metadata about the check: when it started, how long it took, and whether this tweet was served
+ * from cache rather than produced by invoking the {@link HealthMonitor}. Such metadata is not taken into account by
+ * {@link #equals(Object)}, as two tweets are considered equal when they report the same result for the same dependency.
  *
  * @author Martin Bechtle
  */
@@ -16,10 +20,45 @@ public class HealthTweet {
 
     private final HealthResult result;
 
+    /**
+     * Epoch millis at which the check started, or zero if unknown
+     */
+    private final long checkedAtMillis;
+
+    /**
+     * How long the check took in nanoseconds, or zero if unknown
+     */
+    private final long durationNanos;
+
+    /**
+     * True if this tweet was served from cache, false if the {@link HealthMonitor} was invoked to produce it
+     */
+    private final boolean cached;
+
     public HealthTweet(Dependency dependency, HealthResult result) {
 
+        this(dependency, result, 0L, 0L, false);
+    }
+
+    public HealthTweet(Dependency dependency,
+                       HealthResult result,
+                       long checkedAtMillis,
+                       long durationNanos,
+                       boolean cached) {
+
         this.dependency = notNull(dependency, "dependency");
         this.result = notNull(result, "result");
+        this.checkedAtMillis = checkedAtMillis;
+        this.durationNanos = durationNanos;
+        this.cached = cached;
+    }
+
+    /**
+     * @return this tweet if already flagged as cached, otherwise a copy of it flagged as cached
+     */
+    public HealthTweet asCached() {
+
+        return cached ? this : new HealthTweet(dependency, result, checkedAtMillis, durationNanos, true);
     }
 
     public Dependency getDependency() {
@@ -32,6 +71,21 @@ public class HealthTweet {
         return result;
     }
 
+    public long getCheckedAtMillis() {
+
+        return checkedAtMillis;
+    }
+
+    public long getDurationNanos() {
+
+        return durationNanos;
+    }
+
+    public boolean isCached() {
+
+        return cached;
+    }
+
     @Override
     public boolean equals(Object o) {
 
@@ -66,6 +120,9 @@ public class HealthTweet {
         return "HealthTweet{" +
                 "dependency=" + dependency +
                 ", result=" + result +
+                ", checkedAtMillis=" + checkedAtMillis +
+                ", durationNanos=" + durationNanos +
+                ", cached=" + cached +
                 '}';
     }
 }
@@ -0,0 +1,129 @@
+package com.martinbechtle.jcanary.api;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link CanaryCodec}
+ *
+ * @author Martin Bechtle
+ */
+@DisplayName("Canary Codec")
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class CanaryCodecTest {
+
+    @Nested
+    @DisplayName("decode(encode(Canary))")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("should return an equal canary with the same tweet metadata")
+        void roundTrip() {
+
+            List<HealthTweet> tweets = Arrays.asList(
+                    new HealthTweet(new Dependency(DependencyImportance.PRIMARY, DependencyType.DATABASE, "db"),
+                            HealthResult.ok(), 1509058068000L, 1250000L, true),
+                    new HealthTweet(
+                            new Dependency(DependencyImportance.SECONDARY, DependencyType.MESSAGE_CHANNEL, "\u00e7amel"),
+                            HealthResult.of(DependencyStatus.CRITICAL, "Connection refused"), 1509058067000L, 0L, false),
+                    new HealthTweet(new Dependency(DependencyImportance.MANAGEABLE, DependencyType.RESOURCE, "db"),
+                            HealthResult.of(DependencyStatus.DEGRADED, "Connection refused"), 0L, Long.MAX_VALUE, false));
+            Canary canary = Canary.ok("service", tweets);
+
+            Canary decoded = CanaryCodec.decode(CanaryCodec.encode(canary));
+
+            assertEquals(canary, decoded);
+            for (int i = 0; i < tweets.size(); i++) {
+                HealthTweet tweet = tweets.get(i);
+                HealthTweet decodedTweet = decoded.getTweets().get(i);
+                assertEquals(tweet.getCheckedAtMillis(), decodedTweet.getCheckedAtMillis());
+                assertEquals(tweet.getDurationNanos(), decodedTweet.getDurationNanos());
+                assertEquals(tweet.isCached(), decodedTweet.isCached());
+            }
+        }
+
+        @Test
+        @DisplayName("should return an equal canary when forbidden or error")
+        void roundTripNotOk() {
+
+            assertEquals(Canary.forbidden("service"), CanaryCodec.decode(CanaryCodec.encode(Canary.forbidden("service"))));
+            assertEquals(Canary.error("service"), CanaryCodec.decode(CanaryCodec.encode(Canary.error("service"))));
+            assertEquals(Canary.ok("service", emptyList()),
+                    CanaryCodec.decode(CanaryCodec.encode(Canary.ok("service", emptyList()))));
+        }
+    }
+
+    @Nested
+    @DisplayName("encode(Canary)")
+    class Encode {
+
+        @Test
+        @DisplayName("should write repeated names and status texts only once")
+        void encodeDictionary() {
+
+            List<HealthTweet> tweets = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tweets.add(new HealthTweet(
+                        new Dependency(DependencyImportance.SECONDARY, DependencyType.MESSAGE_CHANNEL, "channel" + i % 2),
+                        HealthResult.of(DependencyStatus.CRITICAL, "Connection refused")));
+            }
+
+            String encoded = new String(CanaryCodec.encode(Canary.ok("service", tweets)), StandardCharsets.ISO_8859_1);
+
+            assertEquals(encoded.indexOf("Connection refused"), encoded.lastIndexOf("Connection refused"));
+            assertEquals(encoded.indexOf("channel0"), encoded.lastIndexOf("channel0"));
+            assertFalse(encoded.contains("MESSAGE_CHANNEL"));
+            assertTrue(encoded.length() < 100 * 8);
+        }
+    }
+
+    @Nested
+    @DisplayName("decode(byte[])")
+    class Decode {
+
+        @Test
+        @DisplayName("should throw exception when the input is not a binary canary")
+        void decodeNotCanary() {
+
+            byte[] json = "{\"serviceName\":\"service\"}".getBytes(StandardCharsets.UTF_8);
+
+            assertThrows(IllegalArgumentException.class, () -> CanaryCodec.decode(json));
+        }
+
+        @Test
+        @DisplayName("should throw exception when the input is truncated")
+        void decodeTruncated() {
+
+            byte[] encoded = CanaryCodec.encode(Canary.ok("service", Arrays.asList(
+                    new HealthTweet(new Dependency(DependencyImportance.PRIMARY, DependencyType.DATABASE, "db"),
+                            HealthResult.ok(), 1509058068000L, 1250000L, false))));
+
+            for (int length = 0; length < encoded.length; length++) {
+                byte[] truncated = Arrays.copyOf(encoded, length);
+                assertThrows(IllegalArgumentException.class, () -> CanaryCodec.decode(truncated));
+            }
+        }
+
+        @Test
+        @DisplayName("should throw exception when the format version is not supported")
+        void decodeNewerFormat() {
+
+            byte[] encoded = CanaryCodec.encode(Canary.ok("service", emptyList()));
+            encoded[2] = (byte) (CanaryCodec.FORMAT_VERSION + 1);
+
+            assertThrows(IllegalArgumentException.class, () -> CanaryCodec.decode(encoded));
+        }
+    }
+}
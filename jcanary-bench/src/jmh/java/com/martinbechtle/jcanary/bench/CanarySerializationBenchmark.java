@@ -0,0 +1,46 @@
+package com.martinbechtle.jcanary.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JSON serialisation of a {@link Canary}, as done by the canary endpoint
+ *
+ * @author Martin Bechtle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CanarySerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int tweets;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Canary canary;
+
+    @Setup
+    public void setUp() {
+
+        List<HealthTweet> healthTweets = new ArrayList<>(tweets);
+        for (int i = 0; i < tweets; i++) {
+            healthTweets.add(new HealthTweet(
+                    new Dependency(DependencyImportance.SECONDARY, DependencyType.MESSAGE_CHANNEL, "dependency-" + i),
+                    i % 10 == 0 ? HealthResult.of(DependencyStatus.DEGRADED, "High latency") : HealthResult.ok()));
+        }
+        canary = Canary.ok("benchmark-service", healthTweets);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(canary);
+    }
+}
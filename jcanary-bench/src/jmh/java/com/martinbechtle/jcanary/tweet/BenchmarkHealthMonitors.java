@@ -0,0 +1,50 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.HealthMonitor;
+import com.martinbechtle.jcanary.api.HealthResult;
+
+import java.time.Clock;
+
+/**
+ * Trivial {@link HealthMonitor}s, so that benchmarks measure the overhead of jcanary rather than of the checks
+ *
+ * @author Martin Bechtle
+ */
+final class BenchmarkHealthMonitors {
+
+    private BenchmarkHealthMonitors() {
+
+    }
+
+    /**
+     * @return a tweeter for a monitor with the given name, caching results for an hour if cached is true
+     */
+    static HealthTweeter healthTweeter(String name, boolean cached, Clock clock) {
+
+        HealthMonitor monitor = cached ? new CachingHealthMonitor() : new NonCachingHealthMonitor();
+        HealthTweetDescriptor descriptor = HealthTweeter.descriptorOf(monitor);
+        Dependency dependency = new Dependency(descriptor.importance(), descriptor.type(), name);
+        return new HealthTweeter(monitor, dependency, descriptor, clock, CheckExecutors.defaultExecutor());
+    }
+
+    @HealthTweetDescriptor(name = "cachingMonitor", secondsToLive = 3600)
+    static class CachingHealthMonitor implements HealthMonitor {
+
+        @Override
+        public HealthResult check() {
+
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "nonCachingMonitor", secondsToLive = -1)
+    static class NonCachingHealthMonitor implements HealthMonitor {
+
+        @Override
+        public HealthResult check() {
+
+            return HealthResult.ok();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.HealthTweet;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link HealthAggregator#collect()} for different numbers of monitors and of threads collecting at once
+ *
+ * @author Martin Bechtle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HealthAggregatorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int monitors;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private HealthAggregator healthAggregator;
+
+    @Setup
+    public void setUp() {
+
+        Clock clock = Clock.systemUTC();
+        healthAggregator = new HealthAggregator(clock);
+        for (int i = 0; i < monitors; i++) {
+            healthAggregator.register(BenchmarkHealthMonitors.healthTweeter("monitor-" + i, cached, clock));
+        }
+        healthAggregator.collect();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<HealthTweet> collectSingleThread() {
+
+        return healthAggregator.collect();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<HealthTweet> collectFourThreads() {
+
+        return healthAggregator.collect();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public List<HealthTweet> collectSixteenThreads() {
+
+        return healthAggregator.collect();
+    }
+}
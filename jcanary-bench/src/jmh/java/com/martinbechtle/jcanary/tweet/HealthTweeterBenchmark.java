@@ -0,0 +1,50 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.HealthTweet;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link HealthTweeter#tweet()} when the result is cached and when the monitor is invoked every time
+ *
+ * @author Martin Bechtle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HealthTweeterBenchmark {
+
+    private HealthTweeter cachingTweeter;
+
+    private HealthTweeter nonCachingTweeter;
+
+    @Setup
+    public void setUp() {
+
+        Clock clock = Clock.systemUTC();
+        cachingTweeter = BenchmarkHealthMonitors.healthTweeter("cachingMonitor", true, clock);
+        nonCachingTweeter = BenchmarkHealthMonitors.healthTweeter("nonCachingMonitor", false, clock);
+        cachingTweeter.tweet();
+    }
+
+    @Benchmark
+    public HealthTweet tweetCacheHit() {
+
+        return cachingTweeter.tweet();
+    }
+
+    @Benchmark
+    public HealthTweet tweetCacheMiss() {
+
+        return nonCachingTweeter.tweet();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public HealthTweet tweetCacheHitContended() {
+
+        return cachingTweeter.tweet();
+    }
+}
@@ -0,0 +1,111 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.AsyncHealthMonitor;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
+import com.martinbechtle.jcanary.tweet.DependencyFilter;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Same as {@link CanaryController}, but releases the servlet thread while the monitors are checked, by collecting
+ * with {@link HealthAggregator#collectAsync()} and completing a {@link DeferredResult}.
+ * <p>
+ * Used instead of {@link CanaryController} when the jcanary.boot.async property is set to true. Combined with
+ * {@link AsyncHealthMonitor}s, slow checks hold no thread at all while waiting for their dependencies.
+ *
+ * @author Martin Bechtle
+ */
+@RestController
+@ConditionalOnProperty(prefix = "jcanary.boot", name = {"enabled", "async"}, havingValue = "true")
+@RequestMapping("${jcanary.boot.path:/canary}")
+public class AsyncCanaryController {
+
+    private final HealthAggregator healthAggregator;
+
+    private final CanaryEndpointSupport support;
+
+    @Autowired
+    public AsyncCanaryController(@Qualifier("canaryHealthAggregator") HealthAggregator healthAggregator,
+                                 @Value("${jcanary.boot.secret:}") String secret,
+                                 @Value("${jcanary.boot.serviceName:unknown-service}") String serviceName,
+                                 @Value("${jcanary.boot.gzip:false}") boolean gzip,
+                                 ObjectMapper objectMapper) {
+
+        this.healthAggregator = healthAggregator;
+        this.support = new CanaryEndpointSupport(healthAggregator, secret, serviceName, gzip, objectMapper);
+    }
+
+    @RequestMapping
+    public DeferredResult<ResponseEntity<byte[]>> getCanary(
+            HttpServletRequest httpServletRequest,
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "importance", required = false) List<DependencyImportance> importances,
+            @RequestParam(value = "type", required = false) List<DependencyType> types,
+            @RequestParam(value = "name", required = false) List<String> names) {
+
+        support.verify(httpServletRequest);
+
+        DependencyFilter filter = CanaryEndpointSupport.toFilter(importances, types, names);
+        long version = healthAggregator.getVersion();
+        DeferredResult<ResponseEntity<byte[]>> deferredResult = new DeferredResult<>();
+        healthAggregator.collectAsync(filter)
+                .thenApply(healthTweets -> support.toResponse(healthTweets, version, since, filter, httpServletRequest))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        deferredResult.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error);
+                    }
+                    else {
+                        deferredResult.setResult(response);
+                    }
+                });
+        return deferredResult;
+    }
+
+    /**
+     * @return the outcomes of the last checks of every dependency, without invoking any monitor
+     */
+    @RequestMapping("/history")
+    public ResponseEntity<byte[]> getHistory(HttpServletRequest httpServletRequest) {
+
+        return support.toHistoryResponse(httpServletRequest);
+    }
+
+    @ExceptionHandler(CanaryFailedAuthenticationException.class)
+    public ResponseEntity onAuthenticationFailure(CanaryFailedAuthenticationException e) {
+
+        return support.authenticationFailure();
+    }
+
+    /**
+     * An unknown importance or type was requested
+     */
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity onInvalidFilter(TypeMismatchException e) {
+
+        return support.invalidFilter();
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity onError(RuntimeException e) {
+
+        return support.error();
+    }
+}
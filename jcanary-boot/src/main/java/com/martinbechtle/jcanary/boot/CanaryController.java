@@ -1,23 +1,26 @@
 package com.martinbechtle.jcanary.boot;
 
-import com.martinbechtle.jcanary.api.Canary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.CanaryCodec;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
 import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jcanary.tweet.DependencyFilter;
 import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
-import java.util.Optional;
-
-import static org.springframework.http.ResponseEntity.status;
 
 /**
  * Exposes the result of {@link HealthAggregator} as a {@link RestController} GET request.
@@ -29,57 +32,94 @@ import static org.springframework.http.ResponseEntity.status;
  * In case security is wanted, you can specify a secret in the jcanary.boot.secret property.
  * Such secret can be provided by the caller either as a request param of name secret and the specified value
  * (eg: GET /canary?secret=12345), or within the Authorization header.
+ * <p>
+ * The serialised canary is cached until any of its tweets changes, and served with a weak ETag, so that a request
+ * with a matching If-None-Match header is answered with 304 Not Modified. If the jcanary.boot.gzip property is set to
+ * true, the cached canary is also gzipped once and served as such to clients accepting gzip encoding.
+ * <p>
+ * Clients sending an Accept header with {@link CanaryCodec#MEDIA_TYPE} are served the compact binary encoding instead,
+ * which can be read with {@link CanaryCodec#decode(byte[])}.
+ * <p>
+ * Pollers that keep the full state can send back the version received in the X-Canary-Version header as the since
+ * request param (eg: GET /canary?since=1509058068000042), and are then sent only the tweets whose result changed.
+ * <p>
+ * The importance, type and name request params, each repeatable or comma separated, restrict the canary to the
+ * matching dependencies (eg: GET /canary?importance=PRIMARY), so that only their monitors, and their prerequisites, are
+ * invoked. See {@link HealthAggregator#collect(DependencyFilter)}.
+ * <p>
+ * The outcomes of the last checks of every dependency, including the ones between two canary requests, are served
+ * as JSON on the canary path followed by /history (eg: GET /canary/history).
+ * <p>
+ * If the jcanary.boot.async property is set to true, {@link AsyncCanaryController} is used instead.
  *
  * @author Martin Bechtle
  */
 @RestController
 @ConditionalOnProperty(name = "jcanary.boot.enabled", havingValue = "true")
+@ConditionalOnExpression("!${jcanary.boot.async:false}")
 @RequestMapping("${jcanary.boot.path:/canary}")
 public class CanaryController {
 
     private final HealthAggregator healthAggregator;
 
-    private final String secret;
-
-    private final String serviceName;
+    private final CanaryEndpointSupport support;
 
     @Autowired
     public CanaryController(@Qualifier("canaryHealthAggregator") HealthAggregator healthAggregator,
                             @Value("${jcanary.boot.secret:}") String secret,
-                            @Value("${jcanary.boot.serviceName:unknown-service}") String serviceName) {
+                            @Value("${jcanary.boot.serviceName:unknown-service}") String serviceName,
+                            @Value("${jcanary.boot.gzip:false}") boolean gzip,
+                            ObjectMapper objectMapper) {
 
         this.healthAggregator = healthAggregator;
-        this.secret = secret;
-        this.serviceName = serviceName;
+        this.support = new CanaryEndpointSupport(healthAggregator, secret, serviceName, gzip, objectMapper);
     }
 
     @RequestMapping
-    public Canary getCanary(HttpServletRequest httpServletRequest) {
+    public ResponseEntity<byte[]> getCanary(
+            HttpServletRequest httpServletRequest,
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "importance", required = false) List<DependencyImportance> importances,
+            @RequestParam(value = "type", required = false) List<DependencyType> types,
+            @RequestParam(value = "name", required = false) List<String> names) {
+
+        support.verify(httpServletRequest);
 
-        if (secret != null && !secret.isEmpty()) {
+        DependencyFilter filter = CanaryEndpointSupport.toFilter(importances, types, names);
+        // read before collecting, so that the version sent never claims results newer than the ones sent
+        long version = healthAggregator.getVersion();
+        List<HealthTweet> healthTweets = healthAggregator.collect(filter);
+
+        return support.toResponse(healthTweets, version, since, filter, httpServletRequest);
+    }
 
-            String providedSecret = Optional.ofNullable(httpServletRequest.getParameter("secret"))
-                    .orElseGet(() -> httpServletRequest.getHeader("Authorization"));
+    /**
+     * @return the outcomes of the last checks of every dependency, without invoking any monitor
+     */
+    @RequestMapping("/history")
+    public ResponseEntity<byte[]> getHistory(HttpServletRequest httpServletRequest) {
 
-            if (!secret.equals(providedSecret)) {
-                throw new CanaryFailedAuthenticationException();
-            }
-        }
-        List<HealthTweet> healthTweets = healthAggregator.collect();
-        return Canary.ok(serviceName, healthTweets);
+        return support.toHistoryResponse(httpServletRequest);
     }
 
     @ExceptionHandler(CanaryFailedAuthenticationException.class)
     public ResponseEntity onAuthenticationFailure(CanaryFailedAuthenticationException e) {
 
-        return status(HttpStatus.UNAUTHORIZED)
-                .body(Canary.forbidden(serviceName));
+        return support.authenticationFailure();
+    }
+
+    /**
+     * An unknown importance or type was requested
+     */
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity onInvalidFilter(TypeMismatchException e) {
+
+        return support.invalidFilter();
     }
 
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity onError(RuntimeException e) {
 
-        return status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Canary.error(serviceName));
+        return support.error();
     }
 }
@@ -0,0 +1,134 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jcanary.tweet.DependencyFilter;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import com.martinbechtle.jcanary.tweet.HealthSnapshot;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.ResponseEntity.status;
+
+/**
+ * Everything {@link CanaryController} and {@link AsyncCanaryController} have in common, as they only differ in
+ * whether the servlet thread waits for the monitors to be checked.
+ *
+ * @author Martin Bechtle
+ */
+class CanaryEndpointSupport {
+
+    private final HealthAggregator healthAggregator;
+
+    private final CanarySecret secret;
+
+    private final String serviceName;
+
+    private final CanaryResponseCaches responseCaches;
+
+    private final StatusHistoryWriter historyWriter;
+
+    CanaryEndpointSupport(HealthAggregator healthAggregator,
+                          String secret,
+                          String serviceName,
+                          boolean gzip,
+                          ObjectMapper objectMapper) {
+
+        this.healthAggregator = healthAggregator;
+        this.secret = new CanarySecret(secret);
+        this.serviceName = serviceName;
+        this.responseCaches = new CanaryResponseCaches(objectMapper, serviceName, gzip);
+        this.historyWriter = new StatusHistoryWriter(healthAggregator, serviceName, objectMapper);
+    }
+
+    /**
+     * @throws CanaryFailedAuthenticationException if a secret is configured and the request does not provide it
+     */
+    void verify(HttpServletRequest httpServletRequest) {
+
+        secret.verify(httpServletRequest);
+    }
+
+    /**
+     * Unknown importances or types never get here, as Spring rejects them with a TypeMismatchException, to be answered
+     * with {@link #invalidFilter()}
+     *
+     * @param importances the importance request params, possibly null
+     * @param types       the type request params, possibly null
+     * @param names       the name request params, possibly null
+     */
+    static DependencyFilter toFilter(List<DependencyImportance> importances,
+                                     List<DependencyType> types,
+                                     List<String> names) {
+
+        return DependencyFilter.of(importances, types, names);
+    }
+
+    /**
+     * @param healthTweets the {@link HealthTweet}s collected with such filter
+     * @param version      the version of the results, read before collecting them
+     * @param since        the version known by the client, or null for the full canary
+     * @return the full canary, or only the tweets changed since the given version
+     */
+    ResponseEntity<byte[]> toResponse(List<HealthTweet> healthTweets,
+                                      long version,
+                                      Long since,
+                                      DependencyFilter filter,
+                                      HttpServletRequest httpServletRequest) {
+
+        CanaryResponseCache responseCache = responseCaches.get(filter);
+        if (since == null) {
+            return responseCache.toResponse(healthTweets, version, httpServletRequest);
+        }
+        HealthSnapshot snapshot = healthAggregator.getSnapshot();
+        if (since > snapshot.getVersion()) {
+            // not a version produced by this instance, eg: the client polled it before a restart
+            return responseCache.toResponse(healthTweets, version, httpServletRequest);
+        }
+        List<HealthTweet> changedTweets = snapshot.getTweetsChangedSince(since);
+        if (!filter.isAll()) {
+            changedTweets = changedTweets.stream()
+                    .filter(healthTweet -> filter.matches(healthTweet.getDependency()))
+                    .collect(Collectors.toList());
+        }
+        return responseCache.toDeltaResponse(changedTweets, snapshot.getVersion(), httpServletRequest);
+    }
+
+    /**
+     * @return the outcomes of the last checks of every dependency, without invoking any monitor
+     */
+    ResponseEntity<byte[]> toHistoryResponse(HttpServletRequest httpServletRequest) {
+
+        secret.verify(httpServletRequest);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .body(historyWriter.write());
+    }
+
+    ResponseEntity<Canary> authenticationFailure() {
+
+        return status(HttpStatus.UNAUTHORIZED)
+                .body(Canary.forbidden(serviceName));
+    }
+
+    ResponseEntity<Canary> invalidFilter() {
+
+        return status(HttpStatus.BAD_REQUEST)
+                .body(Canary.error(serviceName));
+    }
+
+    ResponseEntity<Canary> error() {
+
+        return status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Canary.error(serviceName));
+    }
+}
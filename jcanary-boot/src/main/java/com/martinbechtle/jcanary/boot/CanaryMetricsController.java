@@ -0,0 +1,80 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.springframework.http.ResponseEntity.status;
+
+/**
+ * Exposes the cached results and check statistics of {@link HealthAggregator} in the Prometheus text format, as a
+ * {@link RestController} GET request on the canary path followed by /metrics (eg: GET /canary/metrics).
+ * <p>
+ * Scraping never invokes any monitor: only the results of the last checks are reported, so the scrape interval does
+ * not affect the load on dependencies. Requires the same property and secret as {@link CanaryController}.
+ *
+ * @author Martin Bechtle
+ */
+@RestController
+@ConditionalOnProperty(name = "jcanary.boot.enabled", havingValue = "true")
+@RequestMapping("${jcanary.boot.path:/canary}/metrics")
+public class CanaryMetricsController {
+
+    private static final int INITIAL_BUFFER_CAPACITY = 4096;
+
+    /**
+     * Buffers grown past this capacity are dropped after use, so that a one-off large scrape does not leave every
+     * servlet thread holding on to a buffer that large
+     */
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 256 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final PrometheusMetricsWriter metricsWriter;
+
+    private final CanarySecret secret;
+
+    @Autowired
+    public CanaryMetricsController(@Qualifier("canaryHealthAggregator") HealthAggregator healthAggregator,
+                                   @Value("${jcanary.boot.secret:}") String secret) {
+
+        this.metricsWriter = new PrometheusMetricsWriter(healthAggregator);
+        this.secret = new CanarySecret(secret);
+    }
+
+    @RequestMapping
+    public void getMetrics(HttpServletRequest httpServletRequest,
+                           HttpServletResponse httpServletResponse) throws IOException {
+
+        secret.verify(httpServletRequest);
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        metricsWriter.write(buffer);
+
+        httpServletResponse.setContentType(PrometheusMetricsWriter.CONTENT_TYPE);
+        httpServletResponse.getWriter().append(buffer);
+
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+            BUFFER.remove();
+        }
+    }
+
+    @ExceptionHandler(CanaryFailedAuthenticationException.class)
+    public ResponseEntity onAuthenticationFailure(CanaryFailedAuthenticationException e) {
+
+        return status(HttpStatus.UNAUTHORIZED).build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.http.ResponseEntity.status;
+
+/**
+ * Exposes the readiness of {@link CanaryWarmUp} as a {@link RestController} GET request on the canary path followed by
+ * /ready (eg: GET /canary/ready), answering 200 OK once ready and 503 Service Unavailable before, for readiness probes.
+ * <p>
+ * Checking readiness never invokes any monitor. Requires the same property and secret as {@link CanaryController}.
+ *
+ * @author Martin Bechtle
+ */
+@RestController
+@ConditionalOnProperty(name = "jcanary.boot.enabled", havingValue = "true")
+@RequestMapping("${jcanary.boot.path:/canary}/ready")
+public class CanaryReadinessController {
+
+    private final CanaryWarmUp warmUp;
+
+    private final CanarySecret secret;
+
+    private final String serviceName;
+
+    @Autowired
+    public CanaryReadinessController(CanaryWarmUp warmUp,
+                                     @Value("${jcanary.boot.secret:}") String secret,
+                                     @Value("${jcanary.boot.serviceName:unknown-service}") String serviceName) {
+
+        this.warmUp = warmUp;
+        this.secret = new CanarySecret(secret);
+        this.serviceName = serviceName;
+    }
+
+    @RequestMapping
+    public ResponseEntity<Map<String, Object>> getReadiness(HttpServletRequest httpServletRequest) {
+
+        secret.verify(httpServletRequest);
+
+        boolean ready = warmUp.isReady();
+        Map<String, Object> readiness = new LinkedHashMap<>();
+        readiness.put("serviceName", serviceName);
+        readiness.put("ready", ready);
+        return status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(readiness);
+    }
+
+    @ExceptionHandler(CanaryFailedAuthenticationException.class)
+    public ResponseEntity onAuthenticationFailure(CanaryFailedAuthenticationException e) {
+
+        return status(HttpStatus.UNAUTHORIZED).build();
+    }
+}
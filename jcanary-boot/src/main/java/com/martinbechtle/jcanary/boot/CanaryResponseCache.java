@@ -0,0 +1,357 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.CanaryCodec;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the last {@link Canary} served, already serialised to JSON (and optionally gzipped) together with its ETag,
+ * so that it is only serialised again when any of its {@link HealthTweet}s changes. The ETag only depends on the
+ * dependencies and their results, so it holds across checks that report the same status. As the timing of each check
+ * is served too, the same ETag can stand for different bytes, so it is a weak one, compared as such.
+ * <p>
+ * Clients listing the {@link CanaryCodec#MEDIA_TYPE} in their Accept header, with a quality not lower than JSON, are
+ * served the compact binary encoding instead, which is encoded the first time it is requested and cached the same way.
+ * <p>
+ * {@link com.martinbechtle.jcanary.tweet.HealthTweeter} returns the very same {@link HealthTweet} instance as long as
+ * it is cached, so comparing tweets by identity is enough to detect a change, and is much cheaper than equality.
+ *
+ * @author Martin Bechtle
+ */
+class CanaryResponseCache {
+
+    /**
+     * Version of the results in the response, to be sent back in the since request param to only get what changed
+     */
+    static final String VERSION_HEADER = "X-Canary-Version";
+
+    /**
+     * Set to true when the response only contains the tweets changed since the requested version
+     */
+    static final String DELTA_HEADER = "X-Canary-Delta";
+
+    static final MediaType BINARY = MediaType.parseMediaType(CanaryCodec.MEDIA_TYPE);
+
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+
+    private final String serviceName;
+
+    private final boolean gzip;
+
+    private volatile EncodedCanary lastEncodedCanary;
+
+    CanaryResponseCache(ObjectMapper objectMapper, String serviceName, boolean gzip) {
+
+        this.objectMapper = objectMapper;
+        this.serviceName = serviceName;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @return the encoded {@link Canary} for such {@link HealthTweet}s, re-using the last one if the tweets are the same
+     */
+    EncodedCanary encode(List<HealthTweet> healthTweets) {
+
+        EncodedCanary encodedCanary = lastEncodedCanary;
+        if (encodedCanary != null && sameTweets(encodedCanary.healthTweets, healthTweets)) {
+            return encodedCanary;
+        }
+        Canary canary = Canary.ok(serviceName, healthTweets);
+        encodedCanary = new EncodedCanary(healthTweets, canary, toJson(canary), gzip);
+        lastEncodedCanary = encodedCanary;
+        return encodedCanary;
+    }
+
+    /**
+     * @param version the version of such {@link HealthTweet}s, sent in the {@link #VERSION_HEADER}
+     * @return the response for such {@link HealthTweet}s: 304 Not Modified if the request has a matching
+     * If-None-Match header, otherwise the encoded {@link Canary}, gzipped if enabled and accepted by the client.
+     * Each representation has an ETag of its own, as a cache must not serve one in place of another
+     */
+    ResponseEntity<byte[]> toResponse(List<HealthTweet> healthTweets,
+                                      long version,
+                                      HttpServletRequest httpServletRequest) {
+
+        EncodedCanary encodedCanary = encode(healthTweets);
+        boolean binary = acceptsBinary(httpServletRequest);
+        boolean gzipped = !binary && encodedCanary.getGzippedJson() != null && acceptsGzip(httpServletRequest);
+        String eTag = binary ? encodedCanary.getBinaryETag()
+                : gzipped ? encodedCanary.getGzipETag()
+                : encodedCanary.getETag();
+
+        if (EncodedCanary.matches(httpServletRequest.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, eTag)
+                    .header(VERSION_HEADER, Long.toString(version))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            if (encodedCanary.getGzippedJson() != null) {
+                notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            return notModified.build();
+        }
+        if (binary) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.ETAG, eTag)
+                    .header(VERSION_HEADER, Long.toString(version))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .contentType(BINARY)
+                    .body(encodedCanary.getBinary());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.ETAG, eTag)
+                .header(VERSION_HEADER, Long.toString(version))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .contentType(MediaType.APPLICATION_JSON_UTF8);
+
+        if (encodedCanary.getGzippedJson() == null) {
+            return response.body(encodedCanary.getJson());
+        }
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            return response
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .body(encodedCanary.getGzippedJson());
+        }
+        return response.body(encodedCanary.getJson());
+    }
+
+    /**
+     * Delta responses differ for every client, so they are neither cached nor given an ETag
+     *
+     * @param changedTweets the {@link HealthTweet}s changed since the version known by the client
+     * @param version       the version the client is brought up to date with
+     */
+    ResponseEntity<byte[]> toDeltaResponse(List<HealthTweet> changedTweets,
+                                           long version,
+                                           HttpServletRequest httpServletRequest) {
+
+        Canary canary = Canary.ok(serviceName, changedTweets);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(VERSION_HEADER, Long.toString(version))
+                .header(DELTA_HEADER, Boolean.TRUE.toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        if (acceptsBinary(httpServletRequest)) {
+            return response.contentType(BINARY).body(CanaryCodec.encode(canary));
+        }
+        return response.contentType(MediaType.APPLICATION_JSON_UTF8).body(toJson(canary));
+    }
+
+    /**
+     * @return true if the client lists the binary media type in its Accept header, with a quality not lower than any
+     * media type including JSON. Wildcards alone never select the binary encoding, so browsers keep getting JSON
+     */
+    static boolean acceptsBinary(HttpServletRequest httpServletRequest) {
+
+        String accept = httpServletRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.contains(CanaryCodec.MEDIA_TYPE)) {
+            return false;
+        }
+        double binaryQuality = 0;
+        double jsonQuality = 0;
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (BINARY.getType().equals(mediaType.getType())
+                        && BINARY.getSubtype().equals(mediaType.getSubtype())) {
+                    binaryQuality = Math.max(binaryQuality, mediaType.getQualityValue());
+                }
+                else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                    jsonQuality = Math.max(jsonQuality, mediaType.getQualityValue());
+                }
+            }
+        }
+        catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return binaryQuality > 0 && binaryQuality >= jsonQuality;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest httpServletRequest) {
+
+        String acceptEncoding = httpServletRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+    }
+
+    private static boolean sameTweets(List<HealthTweet> cachedTweets, List<HealthTweet> healthTweets) {
+
+        if (cachedTweets == healthTweets) {
+            return true;
+        }
+        if (cachedTweets.size() != healthTweets.size()) {
+            return false;
+        }
+        for (int i = 0; i < cachedTweets.size(); i++) {
+            if (cachedTweets.get(i) != healthTweets.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] toJson(Canary canary) {
+
+        try {
+            return objectMapper.writeValueAsBytes(canary);
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise canary", e);
+        }
+    }
+
+    static class EncodedCanary {
+
+        private final List<HealthTweet> healthTweets;
+
+        private final Canary canary;
+
+        private final byte[] json;
+
+        private final byte[] gzippedJson;
+
+        private final String eTag;
+
+        private final String gzipETag;
+
+        private final String binaryETag;
+
+        /**
+         * Encoded on first use, as most deployments only ever serve JSON. Racing threads encode the same bytes
+         */
+        private volatile byte[] binary;
+
+        private EncodedCanary(List<HealthTweet> healthTweets, Canary canary, byte[] json, boolean gzip) {
+
+            this.healthTweets = healthTweets;
+            this.canary = canary;
+            this.json = json;
+            this.gzippedJson = gzip ? gzip(json) : null;
+            String digest = digest(canary);
+            this.eTag = "W/\"" + digest + "\"";
+            this.gzipETag = "W/\"" + digest + "-gzip\"";
+            this.binaryETag = "W/\"" + digest + "-bin\"";
+        }
+
+        byte[] getJson() {
+
+            return json;
+        }
+
+        /**
+         * @return the gzipped json, or null if gzip is disabled
+         */
+        byte[] getGzippedJson() {
+
+            return gzippedJson;
+        }
+
+        String getETag() {
+
+            return eTag;
+        }
+
+        /**
+         * @return the ETag of the gzipped json, which is a different representation than the plain json
+         */
+        String getGzipETag() {
+
+            return gzipETag;
+        }
+
+        byte[] getBinary() {
+
+            byte[] encoded = binary;
+            if (encoded == null) {
+                encoded = CanaryCodec.encode(canary);
+                binary = encoded;
+            }
+            return encoded;
+        }
+
+        String getBinaryETag() {
+
+            return binaryETag;
+        }
+
+        /**
+         * Weak comparison, as required for If-None-Match by RFC 7232: ETags match if their opaque tags are the same,
+         * whether either is weak or not
+         *
+         * @param ifNoneMatch value of an If-None-Match request header, possibly null or a list of ETags
+         * @param eTag        the ETag of the representation served
+         * @return true if such header matches the ETag
+         */
+        static boolean matches(String ifNoneMatch, String eTag) {
+
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            String opaqueTag = opaqueTag(eTag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || opaqueTag(trimmed).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String opaqueTag(String eTag) {
+
+            return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        }
+
+        /**
+         * Digest of the status reported, without the timing of each check nor whether it was cached: those change on
+         * every check even when the status does not, so would make conditional requests pointless
+         */
+        private static String digest(Canary canary) {
+
+            StringBuilder content = new StringBuilder()
+                    .append(canary.getServiceName()).append('\n')
+                    .append(canary.getResult()).append('\n');
+            for (HealthTweet healthTweet : canary.getTweets()) {
+                Dependency dependency = healthTweet.getDependency();
+                HealthResult result = healthTweet.getResult();
+                String statusText = String.valueOf(result.getStatusText());
+                content.append(dependency.getImportance()).append(' ')
+                        .append(dependency.getType()).append(' ')
+                        .append(result.getStatus()).append(' ')
+                        .append(dependency.getName().length()).append(':').append(dependency.getName())
+                        .append(statusText.length()).append(':').append(statusText).append('\n');
+            }
+            return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 4 + 32);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+                gzipOutputStream.write(bytes);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.tweet.DependencyFilter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one {@link CanaryResponseCache} per {@link DependencyFilter} requested, so that clients polling with different
+ * filters, such as a load balancer only asking for the primary dependencies, do not evict each other's response.
+ * <p>
+ * Filters come from request params, so only the first few distinct ones get a cache of their own: responses for any
+ * other filter are serialised on every request.
+ *
+ * @author Martin Bechtle
+ */
+class CanaryResponseCaches {
+
+    static final int MAX_FILTERED_CACHES = 16;
+
+    private final ObjectMapper objectMapper;
+
+    private final String serviceName;
+
+    private final boolean gzip;
+
+    private final CanaryResponseCache unfilteredCache;
+
+    private final ConcurrentMap<DependencyFilter, CanaryResponseCache> filteredCaches = new ConcurrentHashMap<>();
+
+    CanaryResponseCaches(ObjectMapper objectMapper, String serviceName, boolean gzip) {
+
+        this.objectMapper = objectMapper;
+        this.serviceName = serviceName;
+        this.gzip = gzip;
+        this.unfilteredCache = new CanaryResponseCache(objectMapper, serviceName, gzip);
+    }
+
+    CanaryResponseCache get(DependencyFilter filter) {
+
+        if (filter.isAll()) {
+            return unfilteredCache;
+        }
+        CanaryResponseCache filteredCache = filteredCaches.get(filter);
+        if (filteredCache != null) {
+            return filteredCache;
+        }
+        filteredCache = new CanaryResponseCache(objectMapper, serviceName, gzip);
+        if (filteredCaches.size() < MAX_FILTERED_CACHES) {
+            CanaryResponseCache previous = filteredCaches.putIfAbsent(filter, filteredCache);
+            return previous != null ? previous : filteredCache;
+        }
+        return filteredCache;
+    }
+}
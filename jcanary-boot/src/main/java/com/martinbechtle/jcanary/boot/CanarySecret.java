@@ -0,0 +1,36 @@
+package com.martinbechtle.jcanary.boot;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
+
+/**
+ * The optional secret, configured in the jcanary.boot.secret property, that callers of the jcanary endpoints have to
+ * provide either as a request param of name secret or within the Authorization header.
+ *
+ * @author Martin Bechtle
+ */
+class CanarySecret {
+
+    private final String secret;
+
+    CanarySecret(String secret) {
+
+        this.secret = secret;
+    }
+
+    /**
+     * @throws CanaryFailedAuthenticationException if a secret is configured and the request does not provide it
+     */
+    void verify(HttpServletRequest httpServletRequest) {
+
+        if (secret != null && !secret.isEmpty()) {
+
+            String providedSecret = Optional.ofNullable(httpServletRequest.getParameter("secret"))
+                    .orElseGet(() -> httpServletRequest.getHeader("Authorization"));
+
+            if (!secret.equals(providedSecret)) {
+                throw new CanaryFailedAuthenticationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import com.martinbechtle.jcanary.tweet.HealthTweetListener;
+import com.martinbechtle.jcanary.tweet.HealthTweeter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes every change notified by a {@link HealthAggregator} to all subscribed {@link SseEmitter}s.
+ * <p>
+ * Subscriptions, changes and heartbeats are all handled by a single daemon thread, so that events reach each
+ * subscriber in order, starting with the snapshot, and no checking thread ever waits for a slow client.
+ *
+ * @author Martin Bechtle
+ */
+class CanaryStreamBroadcaster implements HealthTweetListener, AutoCloseable {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+
+    static final String TWEET_EVENT = "tweet";
+
+    private final HealthAggregator healthAggregator;
+
+    private final long emitterTimeoutMillis;
+
+    private final List<SseEmitter> emitters = new ArrayList<>();
+
+    private final ScheduledExecutorService broadcastThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jcanary-stream-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param heartbeatMillis      how often to send a comment to every subscriber, so that idle connections are not
+     *                             closed by proxies
+     * @param emitterTimeoutMillis how long a subscription lasts, after which clients are expected to reconnect
+     */
+    CanaryStreamBroadcaster(HealthAggregator healthAggregator, long heartbeatMillis, long emitterTimeoutMillis) {
+
+        this.healthAggregator = healthAggregator;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.broadcastThread.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis,
+                TimeUnit.MILLISECONDS);
+        healthAggregator.addListener(this);
+    }
+
+    /**
+     * @return a new emitter, which is sent the latest result of every monitor first, and then every change
+     */
+    SseEmitter subscribe() {
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> execute(() -> emitters.remove(emitter)));
+        emitter.onTimeout(() -> execute(() -> emitters.remove(emitter)));
+        execute(() -> {
+            if (send(emitter, SNAPSHOT_EVENT, snapshot())) {
+                emitters.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    @Override
+    public void onChange(HealthTweet healthTweet) {
+
+        execute(() -> emitters.removeIf(emitter -> !send(emitter, TWEET_EVENT, healthTweet)));
+    }
+
+    private void heartbeat() {
+
+        for (Iterator<SseEmitter> iterator = emitters.iterator(); iterator.hasNext(); ) {
+            SseEmitter emitter = iterator.next();
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            catch (IOException | RuntimeException e) {
+                iterator.remove();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the latest results without invoking any monitor
+     */
+    private List<HealthTweet> snapshot() {
+
+        List<HealthTweet> snapshot = new ArrayList<>();
+        for (HealthTweeter healthTweeter : healthAggregator.getHealthTweeters()) {
+            HealthTweet lastTweet = healthTweeter.getLastHealthTweet();
+            if (lastTweet != null) {
+                snapshot.add(lastTweet);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return false if the emitter could not be sent the event, in which case it is completed
+     */
+    private static boolean send(SseEmitter emitter, String eventName, Object data) {
+
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        }
+        catch (IOException | RuntimeException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void execute(Runnable task) {
+
+        try {
+            broadcastThread.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            // closed, all emitters are being completed
+        }
+    }
+
+    @Override
+    public void close() {
+
+        healthAggregator.removeListener(this);
+        broadcastThread.execute(() -> {
+            emitters.forEach(SseEmitter::complete);
+            emitters.clear();
+        });
+        broadcastThread.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.springframework.http.ResponseEntity.status;
+
+/**
+ * Streams changes of the {@link HealthTweet}s of {@link HealthAggregator} as Server-Sent Events, as a
+ * {@link RestController} GET request on the canary path followed by /stream (eg: GET /canary/stream).
+ * <p>
+ * Subscribers are first sent a snapshot event, with the latest {@link HealthTweet} of every monitor checked so far,
+ * then a tweet event whenever the status or status text of a dependency changes, and a heartbeat comment every
+ * jcanary.boot.stream.heartbeatSeconds (15 by default). Streaming never invokes any monitor: changes are pushed as
+ * the monitors are checked, by canary requests or in the background.
+ * <p>
+ * Requires the same property and secret as {@link CanaryController}.
+ *
+ * @author Martin Bechtle
+ */
+@RestController
+@ConditionalOnProperty(name = "jcanary.boot.enabled", havingValue = "true")
+@RequestMapping("${jcanary.boot.path:/canary}/stream")
+public class CanaryStreamController implements DisposableBean {
+
+    private final CanarySecret secret;
+
+    private final CanaryStreamBroadcaster broadcaster;
+
+    @Autowired
+    public CanaryStreamController(@Qualifier("canaryHealthAggregator") HealthAggregator healthAggregator,
+                                  @Value("${jcanary.boot.secret:}") String secret,
+                                  @Value("${jcanary.boot.stream.heartbeatSeconds:15}") long heartbeatSeconds,
+                                  @Value("${jcanary.boot.stream.timeoutMinutes:30}") long timeoutMinutes) {
+
+        this.secret = new CanarySecret(secret);
+        this.broadcaster = new CanaryStreamBroadcaster(
+                healthAggregator,
+                heartbeatSeconds * 1000L,
+                timeoutMinutes * 60000L);
+    }
+
+    @RequestMapping
+    public SseEmitter getStream(HttpServletRequest httpServletRequest) {
+
+        secret.verify(httpServletRequest);
+        return broadcaster.subscribe();
+    }
+
+    @ExceptionHandler(CanaryFailedAuthenticationException.class)
+    public ResponseEntity onAuthenticationFailure(CanaryFailedAuthenticationException e) {
+
+        return status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    @Override
+    public void destroy() {
+
+        broadcaster.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Warms up the cache of {@link HealthAggregator} as soon as the application context is refreshed, by invoking all
+ * monitors once in parallel through {@link HealthAggregator#collectAsync()}, without delaying the startup.
+ * <p>
+ * The application is ready once every {@link DependencyImportance#PRIMARY} dependency has reported, so that the first
+ * canary requests are served from cache. Readiness is not lost afterwards: later failures are reported by the canary.
+ * <p>
+ * Warming up can be turned off by setting the jcanary.boot.warmUp property to false, in which case monitors are first
+ * invoked by canary requests or in the background. Requires the same property as {@link CanaryController}.
+ *
+ * @author Martin Bechtle
+ */
+@Component
+@ConditionalOnProperty(name = "jcanary.boot.enabled", havingValue = "true")
+public class CanaryWarmUp implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final HealthAggregator healthAggregator;
+
+    private final boolean warmUp;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean ready;
+
+    private volatile CompletableFuture<List<HealthTweet>> futureWarmUp;
+
+    @Autowired
+    public CanaryWarmUp(@Qualifier("canaryHealthAggregator") HealthAggregator healthAggregator,
+                        @Value("${jcanary.boot.warmUp:true}") boolean warmUp) {
+
+        this.healthAggregator = healthAggregator;
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Starts warming up on the first refresh only, as child contexts publish their own refresh to their parent
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+
+        if (warmUp && started.compareAndSet(false, true)) {
+            futureWarmUp = healthAggregator.collectAsync();
+        }
+    }
+
+    /**
+     * @return the tweets collected while warming up, or null if warming up never started
+     */
+    CompletableFuture<List<HealthTweet>> getFutureWarmUp() {
+
+        return futureWarmUp;
+    }
+
+    /**
+     * Never invokes any monitor
+     *
+     * @return true once every {@link DependencyImportance#PRIMARY} dependency has reported at least once
+     */
+    public boolean isReady() {
+
+        if (!ready && healthAggregator.hasReported(DependencyImportance.PRIMARY)) {
+            ready = true;
+        }
+        return ready;
+    }
+}
@@ -0,0 +1,157 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import com.martinbechtle.jcanary.tweet.HealthTweeter;
+import com.martinbechtle.jcanary.tweet.LatencyHistogram;
+
+import java.util.Collection;
+
+/**
+ * Writes the cached state of a {@link HealthAggregator} in the Prometheus text exposition format (version 0.0.4).
+ * <p>
+ * Only reads what the {@link HealthTweeter}s already cached, so writing never invokes a monitor.
+ * Dependencies that were never checked report zero for every status.
+ *
+ * @author Martin Bechtle
+ */
+class PrometheusMetricsWriter {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private static final DependencyStatus[] STATUSES = DependencyStatus.values();
+
+    /**
+     * Bucket bounds in seconds, formatted once as they are the same for every {@link LatencyHistogram}
+     */
+    private static final String[] BUCKET_BOUNDS = bucketBounds(new LatencyHistogram());
+
+    private final HealthAggregator healthAggregator;
+
+    PrometheusMetricsWriter(HealthAggregator healthAggregator) {
+
+        this.healthAggregator = healthAggregator;
+    }
+
+    /**
+     * Appends all metrics to the given buffer, which the caller can reuse across scrapes. The tweeters are only copied
+     * once, and every metric family is written from that copy
+     */
+    void write(StringBuilder buffer) {
+
+        Collection<HealthTweeter> registeredTweeters = healthAggregator.getHealthTweeters();
+        HealthTweeter[] healthTweeters = registeredTweeters.toArray(new HealthTweeter[registeredTweeters.size()]);
+
+        header(buffer, "jcanary_dependency_status", "gauge",
+                "Current status of the dependency, 1 for the status it is in and 0 for all others");
+        for (HealthTweeter healthTweeter : healthTweeters) {
+            HealthTweet lastTweet = healthTweeter.getLastHealthTweet();
+            for (DependencyStatus status : STATUSES) {
+                boolean current = lastTweet != null && lastTweet.getResult().getStatus() == status;
+                labels(buffer.append("jcanary_dependency_status"), healthTweeter.getDependency())
+                        .append(",status=\"").append(status.name()).append("\"} ")
+                        .append(current ? '1' : '0').append('\n');
+            }
+        }
+
+        header(buffer, "jcanary_dependency_last_check_timestamp_seconds", "gauge",
+                "When the last check of the dependency started, as seconds since the epoch");
+        for (HealthTweeter healthTweeter : healthTweeters) {
+            HealthTweet lastTweet = healthTweeter.getLastHealthTweet();
+            if (lastTweet != null && lastTweet.getCheckedAtMillis() > 0) {
+                labels(buffer.append("jcanary_dependency_last_check_timestamp_seconds"), healthTweeter.getDependency())
+                        .append("} ").append(lastTweet.getCheckedAtMillis() / 1000d).append('\n');
+            }
+        }
+
+        header(buffer, "jcanary_dependency_checks_total", "counter",
+                "Number of times the dependency was checked");
+        for (HealthTweeter healthTweeter : healthTweeters) {
+            labels(buffer.append("jcanary_dependency_checks_total"), healthTweeter.getDependency())
+                    .append("} ").append(healthTweeter.getLatencyHistogram().getCount()).append('\n');
+        }
+
+        header(buffer, "jcanary_dependency_check_failures_total", "counter",
+                "Number of checks of the dependency that failed or did not report a healthy status");
+        for (HealthTweeter healthTweeter : healthTweeters) {
+            labels(buffer.append("jcanary_dependency_check_failures_total"), healthTweeter.getDependency())
+                    .append("} ").append(healthTweeter.getFailureCount()).append('\n');
+        }
+
+        header(buffer, "jcanary_dependency_check_duration_seconds", "histogram",
+                "How long the checks of the dependency took");
+        for (HealthTweeter healthTweeter : healthTweeters) {
+            histogram(buffer, healthTweeter.getDependency(), healthTweeter.getLatencyHistogram());
+        }
+    }
+
+    private static void histogram(StringBuilder buffer, Dependency dependency, LatencyHistogram latencyHistogram) {
+
+        long cumulativeCount = 0;
+        for (int bucket = 0; bucket < latencyHistogram.getBucketCount(); bucket++) {
+            cumulativeCount += latencyHistogram.getCount(bucket);
+            labels(buffer.append("jcanary_dependency_check_duration_seconds_bucket"), dependency)
+                    .append(",le=\"").append(BUCKET_BOUNDS[bucket]).append("\"} ")
+                    .append(cumulativeCount).append('\n');
+        }
+        // the count is taken from the buckets, so that it is consistent with them even while checks are recorded
+        labels(buffer.append("jcanary_dependency_check_duration_seconds_sum"), dependency)
+                .append("} ").append(latencyHistogram.getSumNanos() / NANOS_PER_SECOND).append('\n');
+        labels(buffer.append("jcanary_dependency_check_duration_seconds_count"), dependency)
+                .append("} ").append(cumulativeCount).append('\n');
+    }
+
+    private static void header(StringBuilder buffer, String name, String type, String help) {
+
+        buffer.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends the opening brace and the labels of the dependency, leaving the label set open for more labels
+     */
+    private static StringBuilder labels(StringBuilder buffer, Dependency dependency) {
+
+        buffer.append("{name=\"");
+        escape(buffer, dependency.getName());
+        return buffer.append("\",type=\"").append(dependency.getType().name())
+                .append("\",importance=\"").append(dependency.getImportance().name())
+                .append('"');
+    }
+
+    private static void escape(StringBuilder buffer, String labelValue) {
+
+        for (int i = 0; i < labelValue.length(); i++) {
+            char c = labelValue.charAt(i);
+            switch (c) {
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                default:
+                    buffer.append(c);
+            }
+        }
+    }
+
+    private static String[] bucketBounds(LatencyHistogram latencyHistogram) {
+
+        String[] bounds = new String[latencyHistogram.getBucketCount()];
+        for (int bucket = 0; bucket < bounds.length; bucket++) {
+            long upperBoundNanos = latencyHistogram.getBucketUpperBoundNanos(bucket);
+            bounds[bucket] = upperBoundNanos == Long.MAX_VALUE
+                    ? "+Inf"
+                    : Double.toString(upperBoundNanos / NANOS_PER_SECOND);
+        }
+        return bounds;
+    }
+}
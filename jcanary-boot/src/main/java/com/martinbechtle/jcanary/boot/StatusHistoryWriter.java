@@ -0,0 +1,84 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import com.martinbechtle.jcanary.tweet.HealthTweeter;
+import com.martinbechtle.jcanary.tweet.StatusHistory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the {@link StatusHistory} of every dependency of a {@link HealthAggregator} as JSON, oldest outcome first.
+ * <p>
+ * The outcomes are streamed straight from primitive arrays into the JSON generator, without mapping them to one object
+ * each, so that the cost of a request does not grow with thousands of dependencies beyond the bytes written. Writing
+ * never invokes a monitor.
+ *
+ * @author Martin Bechtle
+ */
+class StatusHistoryWriter {
+
+    private final HealthAggregator healthAggregator;
+
+    private final String serviceName;
+
+    private final JsonFactory jsonFactory;
+
+    StatusHistoryWriter(HealthAggregator healthAggregator, String serviceName, ObjectMapper objectMapper) {
+
+        this.healthAggregator = healthAggregator;
+        this.serviceName = serviceName;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    byte[] write() {
+
+        int capacity = 0;
+        for (HealthTweeter healthTweeter : healthAggregator.getHealthTweeters()) {
+            capacity = Math.max(capacity, healthTweeter.getStatusHistory().getCapacity());
+        }
+        long[] checkedAtMillis = new long[capacity];
+        DependencyStatus[] statuses = new DependencyStatus[capacity];
+        long[] durationNanos = new long[capacity];
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
+            json.writeStartObject();
+            json.writeStringField("serviceName", serviceName);
+            json.writeArrayFieldStart("dependencies");
+            for (HealthTweeter healthTweeter : healthAggregator.getHealthTweeters()) {
+                Dependency dependency = healthTweeter.getDependency();
+                StatusHistory statusHistory = healthTweeter.getStatusHistory();
+                int size = statusHistory.copyTo(checkedAtMillis, statuses, durationNanos);
+
+                json.writeStartObject();
+                json.writeStringField("name", dependency.getName());
+                json.writeStringField("type", dependency.getType().name());
+                json.writeStringField("importance", dependency.getImportance().name());
+                json.writeNumberField("count", statusHistory.getCount());
+                json.writeArrayFieldStart("checks");
+                for (int i = 0; i < size; i++) {
+                    json.writeStartObject();
+                    json.writeNumberField("checkedAtMillis", checkedAtMillis[i]);
+                    json.writeStringField("status", statuses[i].name());
+                    json.writeNumberField("durationNanos", durationNanos[i]);
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the case in which the canary is collected asynchronously (see application-async.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"async"})
+public class AsyncCanaryControllerIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnOkAsynchronously_WhenEnabledAndAsyncInConfig() throws Exception {
+
+        MvcResult mvcResult = mockMvc.perform(get("/canary"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serviceName").value("test-service"))
+                .andExpect(jsonPath("$.result").value("OK"))
+                .andExpect(jsonPath("$.tweets[0].dependency.name").value("dummyMonitor"))
+                .andExpect(jsonPath("$.tweets[0].result.status").value("HEALTHY"));
+    }
+
+    @Test
+    public void context_ShouldNotContainBlockingController_WhenAsyncInConfig() {
+
+        assertEquals(0, context.getBeanNamesForType(CanaryController.class).length);
+        assertEquals(1, context.getBeanNamesForType(AsyncCanaryController.class).length);
+    }
+}
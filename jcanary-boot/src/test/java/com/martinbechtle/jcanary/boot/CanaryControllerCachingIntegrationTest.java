@@ -0,0 +1,160 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.CanaryCodec;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the caching of the serialised canary, with ETag, gzip and binary encoding support
+ * (see application-enabled.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryControllerCachingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnNotModified_WhenIfNoneMatchHeaderMatchesETag() throws Exception {
+
+        // the dummy monitor is checked again on every request, which only changes the timing of the check
+        String eTag = mockMvc.perform(get("/canary"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/canary").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnWeakETag_ComparedWeakly() throws Exception {
+
+        // the same ETag is served along different timings of the checks, so it must not claim byte equality
+        String eTag = mockMvc.perform(get("/canary"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertTrue(eTag.startsWith("W/\""));
+        mockMvc.perform(get("/canary").header(HttpHeaders.IF_NONE_MATCH, eTag.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnOk_WhenIfNoneMatchHeaderDoesNotMatchETag() throws Exception {
+
+        mockMvc.perform(get("/canary").header(HttpHeaders.IF_NONE_MATCH, "\"someOtherETag\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnGzippedCanary_WhenGzipEnabledInConfig_AndAcceptedByClient() throws Exception {
+
+        MvcResult gzipResult = mockMvc.perform(get("/canary").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] gzippedJson = gzipResult.getResponse().getContentAsByteArray();
+        JsonNode json = new ObjectMapper().readTree(new GZIPInputStream(new ByteArrayInputStream(gzippedJson)));
+        assertEquals("test-service", json.path("serviceName").asText());
+        assertEquals("dummyMonitor", json.path("tweets").path(0).path("dependency").path("name").asText());
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnDistinctETags_ForGzippedAndPlainCanary() throws Exception {
+
+        String eTag = mockMvc.perform(get("/canary"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        String gzipETag = mockMvc.perform(get("/canary").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(eTag, gzipETag);
+        mockMvc.perform(get("/canary").header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/canary")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipETag));
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnBinaryCanary_WhenAcceptedByClient() throws Exception {
+
+        mockMvc.perform(get("/canary"));
+
+        MvcResult jsonResult = mockMvc.perform(get("/canary"))
+                .andReturn();
+
+        MvcResult binaryResult = mockMvc.perform(get("/canary")
+                .header(HttpHeaders.ACCEPT, CanaryCodec.MEDIA_TYPE + ", application/json;q=0.9"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CanaryCodec.MEDIA_TYPE))
+                .andReturn();
+
+        Canary canary = CanaryCodec.decode(binaryResult.getResponse().getContentAsByteArray());
+        assertEquals("test-service", canary.getServiceName());
+        assertEquals("dummyMonitor", canary.getTweets().get(0).getDependency().getName());
+        assertNotEquals(jsonResult.getResponse().getHeader(HttpHeaders.ETAG),
+                binaryResult.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnJsonCanary_WhenClientPrefersJson() throws Exception {
+
+        mockMvc.perform(get("/canary")
+                .header(HttpHeaders.ACCEPT, "application/json, " + CanaryCodec.MEDIA_TYPE + ";q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
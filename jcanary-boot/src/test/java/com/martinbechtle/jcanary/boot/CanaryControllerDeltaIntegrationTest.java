@@ -0,0 +1,82 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the delta responses served to clients sending the since request param
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryControllerDeltaIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnNoTweets_WhenNothingChangedSinceVersion() throws Exception {
+
+        mockMvc.perform(get("/canary"));
+
+        String version = mockMvc.perform(get("/canary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CanaryResponseCache.VERSION_HEADER, notNullValue()))
+                .andReturn()
+                .getResponse()
+                .getHeader(CanaryResponseCache.VERSION_HEADER);
+
+        mockMvc.perform(get("/canary").param("since", version))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CanaryResponseCache.VERSION_HEADER, version))
+                .andExpect(header().string(CanaryResponseCache.DELTA_HEADER, "true"))
+                .andExpect(jsonPath("$.tweets", empty()));
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnAllTweets_WhenEverythingChangedSinceVersion() throws Exception {
+
+        mockMvc.perform(get("/canary").param("since", "0"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CanaryResponseCache.DELTA_HEADER, "true"))
+                .andExpect(jsonPath("$.tweets", not(empty())));
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnFullCanary_WhenVersionUnknown() throws Exception {
+
+        mockMvc.perform(get("/canary").param("since", Long.toString(Long.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CanaryResponseCache.DELTA_HEADER))
+                .andExpect(jsonPath("$.tweets", not(empty())));
+    }
+}
@@ -50,6 +50,9 @@ public class CanaryControllerEnabledIntegrationTest {
                 .andExpect(jsonPath("$.tweets[0].dependency.type").value("RESOURCE"))
                 .andExpect(jsonPath("$.tweets[0].dependency.name").value("dummyMonitor"))
                 .andExpect(jsonPath("$.tweets[0].result.status").value("HEALTHY"))
-                .andExpect(jsonPath("$.tweets[0].result.statusText").value(""));
+                .andExpect(jsonPath("$.tweets[0].result.statusText").value(""))
+                .andExpect(jsonPath("$.tweets[0].checkedAtMillis").isNumber())
+                .andExpect(jsonPath("$.tweets[0].durationNanos").isNumber())
+                .andExpect(jsonPath("$.tweets[0].cached").isBoolean());
     }
 }
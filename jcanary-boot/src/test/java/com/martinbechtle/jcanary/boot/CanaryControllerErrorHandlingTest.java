@@ -1,5 +1,6 @@
 package com.martinbechtle.jcanary.boot;
 
+import com.martinbechtle.jcanary.tweet.DependencyFilter;
 import com.martinbechtle.jcanary.tweet.HealthAggregator;
 import org.junit.Before;
 import org.junit.Test;
@@ -47,7 +48,7 @@ public class CanaryControllerErrorHandlingTest {
     @Test
     public void canaryEndpoint_ShouldReturnFailedCanary_WhenExceptionThrown() throws Exception {
 
-        when(healthAggregator.collect())
+        when(healthAggregator.collect(DependencyFilter.ALL))
                 .thenThrow(new RuntimeException());
 
         mockMvc.perform(get("/canary"))
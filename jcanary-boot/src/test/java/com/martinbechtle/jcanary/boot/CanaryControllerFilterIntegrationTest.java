@@ -0,0 +1,72 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for canary requests filtered by importance, type and name (see application-enabled.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryControllerFilterIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnMatchingTweets_WhenFilteredByImportanceAndType() throws Exception {
+
+        mockMvc.perform(get("/canary?importance=PRIMARY&type=RESOURCE,DATABASE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value("OK"))
+                .andExpect(jsonPath("$.tweets", hasSize(1)))
+                .andExpect(jsonPath("$.tweets[0].dependency.name").value("dummyMonitor"));
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnNoTweets_WhenNoDependencyMatches() throws Exception {
+
+        mockMvc.perform(get("/canary?importance=SECONDARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tweets").isEmpty());
+
+        mockMvc.perform(get("/canary?name=otherMonitor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tweets").isEmpty());
+    }
+
+    @Test
+    public void canaryEndpoint_ShouldReturnBadRequest_WhenImportanceIsUnknown() throws Exception {
+
+        mockMvc.perform(get("/canary?importance=CRUCIAL"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.result").value("ERROR"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the status history endpoint (see application-enabled.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryControllerHistoryIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void historyEndpoint_ShouldReturnOutcomesOfLastChecks_WhenEnabledInConfig() throws Exception {
+
+        mockMvc.perform(get("/canary"));
+
+        mockMvc.perform(get("/canary/history"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.serviceName", is("test-service")))
+                .andExpect(jsonPath("$.dependencies[0].name", is("dummyMonitor")))
+                .andExpect(jsonPath("$.dependencies[0].type", is("RESOURCE")))
+                .andExpect(jsonPath("$.dependencies[0].checks", not(empty())))
+                .andExpect(jsonPath("$.dependencies[0].checks[0].status", is("HEALTHY")));
+    }
+}
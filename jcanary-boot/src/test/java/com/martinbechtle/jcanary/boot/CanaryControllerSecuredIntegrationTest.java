@@ -88,4 +88,22 @@ public class CanaryControllerSecuredIntegrationTest {
                         .param("secret", SECRET_CORRECT))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void metricsEndpoint_ShouldReturnUnauthorized_WhenEnabledAndSecuredInConfig_AndMissingSecretInRequest()
+            throws Exception {
+
+        mockMvc.perform(get("/canary/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void metricsEndpoint_ShouldReturnOk_WhenEnabledAndSecuredInConfig_AndCorrectSecretInQuery()
+            throws Exception {
+
+        mockMvc.perform(
+                get("/canary/metrics")
+                        .param("secret", SECRET_CORRECT))
+                .andExpect(status().isOk());
+    }
 }
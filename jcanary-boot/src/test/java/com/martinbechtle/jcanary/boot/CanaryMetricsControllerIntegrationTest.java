@@ -0,0 +1,65 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the Prometheus metrics endpoint (see application-enabled.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryMetricsControllerIntegrationTest {
+
+    private static final String LABELS = "name=\"dummyMonitor\",type=\"RESOURCE\",importance=\"PRIMARY\"";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void metricsEndpoint_ShouldReturnLastResultsInPrometheusFormat_WhenEnabledInConfig() throws Exception {
+
+        mockMvc.perform(get("/canary"));
+
+        mockMvc.perform(get("/canary/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/plain; version=0.0.4")))
+                .andExpect(content().string(containsString(
+                        "jcanary_dependency_status{" + LABELS + ",status=\"HEALTHY\"} 1\n")))
+                .andExpect(content().string(containsString(
+                        "jcanary_dependency_status{" + LABELS + ",status=\"CRITICAL\"} 0\n")))
+                .andExpect(content().string(containsString(
+                        "jcanary_dependency_checks_total{" + LABELS + "} ")))
+                .andExpect(content().string(containsString(
+                        "jcanary_dependency_check_failures_total{" + LABELS + "} 0\n")))
+                .andExpect(content().string(containsString(
+                        "jcanary_dependency_check_duration_seconds_bucket{" + LABELS + ",le=\"+Inf\"} ")));
+    }
+}
@@ -0,0 +1,91 @@
+package com.martinbechtle.jcanary.boot;
+
+import com.martinbechtle.jcanary.tweet.HealthAggregator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the warm-up at startup and the readiness endpoint (see application-enabled.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryReadinessIntegrationTest {
+
+    private static final long READY_TIMEOUT_MILLIS = 5000L;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private CanaryWarmUp warmUp;
+
+    @Autowired
+    @Qualifier("canaryHealthAggregator")
+    private HealthAggregator healthAggregator;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void readinessEndpoint_ShouldReturnOk_WhenWarmedUpAtStartup() throws Exception {
+
+        assertNotNull(warmUp.getFutureWarmUp());
+        warmUp.getFutureWarmUp().get(READY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        // checked by the warm-up, without any canary request
+        assertTrue(warmUp.isReady());
+        assertNotNull(healthAggregator.getHealthTweeters().iterator().next().getLastHealthTweet());
+
+        mockMvc.perform(get("/canary/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serviceName", is("test-service")))
+                .andExpect(jsonPath("$.ready", is(true)));
+    }
+
+    @Test
+    public void isReady_ShouldBeFalse_UntilPrimaryDependenciesReported() {
+
+        HealthAggregator coldHealthAggregator = new HealthAggregator(Clock.systemDefaultZone())
+                .register(new DummyHealthMonitor());
+        CanaryWarmUp coldWarmUp = new CanaryWarmUp(coldHealthAggregator, false);
+
+        coldWarmUp.onApplicationEvent(null);
+        assertNull(coldWarmUp.getFutureWarmUp());
+        assertFalse(coldWarmUp.isReady());
+
+        coldHealthAggregator.collect();
+        assertTrue(coldWarmUp.isReady());
+    }
+}
@@ -0,0 +1,73 @@
+package com.martinbechtle.jcanary.boot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Integration test for the Server-Sent Events stream (see application-enabled.properties)
+ *
+ * @author Martin Bechtle
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = {IntegrationTestConfig.class})
+@WebAppConfiguration
+@ActiveProfiles({"enabled"})
+public class CanaryStreamControllerIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .build();
+    }
+
+    @Test
+    public void streamEndpoint_ShouldSendSnapshotOfLastResults_WhenEnabledInConfig() throws Exception {
+
+        mockMvc.perform(get("/canary"));
+
+        MvcResult mvcResult = mockMvc.perform(get("/canary/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(mvcResult, "event:snapshot");
+        assertThat(content, containsString("event:snapshot\ndata:[{\"dependency\":"));
+        assertThat(content, containsString("\"name\":\"dummyMonitor\""));
+    }
+
+    /**
+     * Events are sent by another thread, so waits until the expected content is streamed or a few seconds passed
+     */
+    private static String awaitContent(MvcResult mvcResult, String expectedContent) throws Exception {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = mvcResult.getResponse().getContentAsString();
+        while (!content.contains(expectedContent) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
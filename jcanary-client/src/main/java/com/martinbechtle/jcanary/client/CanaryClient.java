@@ -0,0 +1,158 @@
+package com.martinbechtle.jcanary.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.CanaryCodec;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.martinbechtle.jrequire.Require.notNull;
+
+/**
+ * Fetches {@link Canary}s with a non-blocking HTTP client, so that hundreds of endpoints can be polled at the same time
+ * by a couple of I/O threads, re-using pooled connections across polls.
+ * <p>
+ * Every fetch is abandoned after the timeout of its {@link CanaryEndpoint}, even if the endpoint keeps sending data.
+ * <p>
+ * Canaries are requested in the compact {@link CanaryCodec} encoding, falling back to JSON for services not supporting
+ * it yet.
+ *
+ * @author Martin Bechtle
+ */
+public class CanaryClient implements AutoCloseable {
+
+    static final int DEFAULT_MAX_CONNECTIONS = 512;
+
+    private static final int MAX_CONNECTIONS_PER_ENDPOINT = 2;
+
+    static final String ACCEPT = CanaryCodec.MEDIA_TYPE + ", application/json;q=0.9";
+
+    private final CloseableHttpAsyncClient httpClient;
+
+    private final ObjectMapper objectMapper = CanaryObjectMapper.create();
+
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jcanary-client-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CanaryClient() {
+
+        this(DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param maxConnections maximum number of connections open at the same time, across all endpoints
+     */
+    public CanaryClient(int maxConnections) {
+
+        this.httpClient = HttpAsyncClients.custom()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ENDPOINT)
+                .build();
+        this.httpClient.start();
+    }
+
+    /**
+     * @param endpoint mandatory
+     * @return a future {@link Canary}, completed exceptionally if the endpoint could not be reached, did not respond
+     * in time (with a {@link TimeoutException}) or did not respond with a canary
+     */
+    public CompletableFuture<Canary> fetch(CanaryEndpoint endpoint) {
+
+        notNull(endpoint, "endpoint");
+
+        int timeoutMillis = (int) Math.min(Integer.MAX_VALUE, endpoint.getTimeoutMillis());
+        HttpGet request = new HttpGet(endpoint.getUri());
+        request.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setConnectTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build());
+        request.setHeader(HttpHeaders.ACCEPT, ACCEPT);
+        if (endpoint.getSecret() != null) {
+            request.setHeader(HttpHeaders.AUTHORIZATION, endpoint.getSecret());
+        }
+
+        CompletableFuture<Canary> futureCanary = new CompletableFuture<>();
+        Future<HttpResponse> futureResponse = httpClient.execute(request, new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse response) {
+
+                try {
+                    futureCanary.complete(toCanary(response));
+                }
+                catch (RuntimeException e) {
+                    futureCanary.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                futureCanary.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+
+                futureCanary.completeExceptionally(new TimeoutException(
+                        String.format("%s did not respond within %d milliseconds", endpoint, timeoutMillis)));
+            }
+        });
+
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(
+                () -> futureResponse.cancel(true), timeoutMillis, TimeUnit.MILLISECONDS);
+        futureCanary.whenComplete((canary, error) -> timeout.cancel(false));
+        return futureCanary;
+    }
+
+    /**
+     * Reads the body as a {@link Canary}: services respond with a canary also when authentication fails or on errors
+     */
+    private Canary toCanary(HttpResponse response) {
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            throw new IllegalStateException("Empty response with status " + response.getStatusLine().getStatusCode());
+        }
+        try {
+            byte[] body = EntityUtils.toByteArray(entity);
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            if (contentType != null && contentType.getValue().startsWith(CanaryCodec.MEDIA_TYPE)) {
+                return CanaryCodec.decode(body);
+            }
+            return objectMapper.readValue(body, Canary.class);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        timeoutScheduler.shutdownNow();
+        httpClient.close();
+    }
+}
@@ -0,0 +1,87 @@
+package com.martinbechtle.jcanary.client;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.net.URI;
+
+import static com.martinbechtle.jrequire.Require.notNull;
+
+/**
+ * A canary endpoint to be polled, identified by its {@link URI}
+ *
+ * @author Martin Bechtle
+ */
+public class CanaryEndpoint {
+
+    private final URI uri;
+
+    private final String secret;
+
+    private final long timeoutMillis;
+
+    /**
+     * @param uri           mandatory, the full URI of the canary endpoint (eg: http://host:8080/canary)
+     * @param secret        optional, sent in the Authorization header if not null
+     * @param timeoutMillis how long to wait for the whole response, including the connection. Must be positive
+     */
+    public CanaryEndpoint(URI uri, String secret, long timeoutMillis) {
+
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis must be positive");
+        }
+        this.uri = notNull(uri, "uri");
+        this.secret = secret;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public URI getUri() {
+
+        return uri;
+    }
+
+    /**
+     * @return the secret, or null if the endpoint is not secured
+     */
+    public String getSecret() {
+
+        return secret;
+    }
+
+    public long getTimeoutMillis() {
+
+        return timeoutMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof CanaryEndpoint)) {
+            return false;
+        }
+
+        CanaryEndpoint that = (CanaryEndpoint) o;
+
+        return new EqualsBuilder()
+                .append(uri, that.uri)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+
+        return new HashCodeBuilder(17, 37)
+                .append(uri)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+
+        return uri.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.martinbechtle.jcanary.client;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.CanaryResult;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.DependencyType;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+
+import java.util.List;
+
+/**
+ * Creates {@link ObjectMapper}s able to read a {@link Canary}.
+ * <p>
+ * The jcanary-api classes are immutable and free of Jackson annotations, so their creators are declared with
+ * mix-ins. Unknown properties are ignored, so that older clients can read canaries of newer services.
+ *
+ * @author Martin Bechtle
+ */
+final class CanaryObjectMapper {
+
+    private CanaryObjectMapper() {
+
+    }
+
+    static ObjectMapper create() {
+
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addMixIn(Canary.class, CanaryMixIn.class)
+                .addMixIn(HealthTweet.class, HealthTweetMixIn.class)
+                .addMixIn(Dependency.class, DependencyMixIn.class)
+                .addMixIn(HealthResult.class, HealthResultMixIn.class);
+    }
+
+    private abstract static class CanaryMixIn {
+
+        @JsonCreator
+        CanaryMixIn(@JsonProperty("serviceName") String serviceName,
+                    @JsonProperty("result") CanaryResult result,
+                    @JsonProperty("tweets") List<HealthTweet> tweets) {
+
+        }
+    }
+
+    private abstract static class HealthTweetMixIn {
+
+        @JsonCreator
+        HealthTweetMixIn(@JsonProperty("dependency") Dependency dependency,
+                         @JsonProperty("result") HealthResult result,
+                         @JsonProperty("checkedAtMillis") long checkedAtMillis,
+                         @JsonProperty("durationNanos") long durationNanos,
+                         @JsonProperty("cached") boolean cached) {
+
+        }
+    }
+
+    private abstract static class DependencyMixIn {
+
+        @JsonCreator
+        DependencyMixIn(@JsonProperty("importance") DependencyImportance importance,
+                        @JsonProperty("type") DependencyType type,
+                        @JsonProperty("name") String name) {
+
+        }
+    }
+
+    private abstract static class HealthResultMixIn {
+
+        @JsonCreator
+        static HealthResult of(@JsonProperty("status") DependencyStatus status,
+                               @JsonProperty("statusText") String statusText) {
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.martinbechtle.jcanary.client;
+
+import com.martinbechtle.jcanary.api.Canary;
+
+/**
+ * Outcome of the latest poll of a {@link CanaryEndpoint}
+ *
+ * @author Martin Bechtle
+ */
+public class EndpointStatus {
+
+    private final CanaryEndpoint endpoint;
+
+    private final Canary canary;
+
+    private final long polledAtMillis;
+
+    private final String error;
+
+    private EndpointStatus(CanaryEndpoint endpoint, Canary canary, long polledAtMillis, String error) {
+
+        this.endpoint = endpoint;
+        this.canary = canary;
+        this.polledAtMillis = polledAtMillis;
+        this.error = error;
+    }
+
+    static EndpointStatus notPolledYet(CanaryEndpoint endpoint) {
+
+        return new EndpointStatus(endpoint, null, 0L, null);
+    }
+
+    static EndpointStatus reached(CanaryEndpoint endpoint, Canary canary, long polledAtMillis) {
+
+        return new EndpointStatus(endpoint, canary, polledAtMillis, null);
+    }
+
+    /**
+     * Keeps the last {@link Canary} received from the endpoint, if any
+     */
+    EndpointStatus unreachable(String error, long polledAtMillis) {
+
+        return new EndpointStatus(endpoint, canary, polledAtMillis, error);
+    }
+
+    public CanaryEndpoint getEndpoint() {
+
+        return endpoint;
+    }
+
+    /**
+     * @return the last {@link Canary} received, even if the latest poll failed, or null if none was ever received
+     */
+    public Canary getCanary() {
+
+        return canary;
+    }
+
+    /**
+     * @return epoch millis at which the latest poll completed, or zero if the endpoint was not polled yet
+     */
+    public long getPolledAtMillis() {
+
+        return polledAtMillis;
+    }
+
+    /**
+     * @return true if the latest poll returned a {@link Canary}
+     */
+    public boolean isReachable() {
+
+        return polledAtMillis > 0 && error == null;
+    }
+
+    /**
+     * @return why the latest poll failed, or null if it did not
+     */
+    public String getError() {
+
+        return error;
+    }
+
+    @Override
+    public String toString() {
+
+        return "EndpointStatus{" +
+                "endpoint=" + endpoint +
+                ", canary=" + canary +
+                ", polledAtMillis=" + polledAtMillis +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
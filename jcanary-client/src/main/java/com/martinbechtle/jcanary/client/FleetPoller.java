@@ -0,0 +1,138 @@
+package com.martinbechtle.jcanary.client;
+
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jrequire.Require;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls many {@link CanaryEndpoint}s concurrently at a fixed interval and keeps the latest {@link EndpointStatus} of
+ * each of them in memory.
+ * <p>
+ * An endpoint whose previous poll is still in progress is skipped, so a slow endpoint never has more than one
+ * request in flight, and the time taken by a round is bound by the slowest endpoint timeout.
+ *
+ * @author Martin Bechtle
+ */
+public class FleetPoller implements AutoCloseable {
+
+    private final CanaryClient canaryClient;
+
+    private final Clock clock;
+
+    private final List<CanaryEndpoint> endpoints;
+
+    private final Map<CanaryEndpoint, EndpointStatus> statuses = new ConcurrentHashMap<>();
+
+    private final Map<CanaryEndpoint, CompletableFuture<EndpointStatus>> pendingPolls = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jcanary-fleet-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param canaryClient mandatory, its lifecycle is up to the caller
+     * @param endpoints    mandatory, the endpoints to poll
+     * @param clock        mandatory
+     */
+    public FleetPoller(CanaryClient canaryClient, Collection<CanaryEndpoint> endpoints, Clock clock) {
+
+        this.canaryClient = Require.notNull(canaryClient, "canaryClient");
+        this.clock = Require.notNull(clock, "clock");
+        this.endpoints = new ArrayList<>(Require.notNull(endpoints, "endpoints"));
+        this.endpoints.forEach(endpoint -> statuses.put(endpoint, EndpointStatus.notPolledYet(endpoint)));
+    }
+
+    /**
+     * Polls all endpoints straight away, and then every intervalMillis
+     *
+     * @return an instance of this object for method chaining
+     */
+    public FleetPoller start(long intervalMillis) {
+
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be positive");
+        }
+        scheduler.scheduleAtFixedRate(this::poll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Polls all endpoints whose previous poll completed
+     *
+     * @return a future completed once all such polls complete, never exceptionally
+     */
+    public CompletableFuture<Void> poll() {
+
+        List<CompletableFuture<EndpointStatus>> polls = new ArrayList<>(endpoints.size());
+        for (CanaryEndpoint endpoint : endpoints) {
+            CompletableFuture<EndpointStatus> futureStatus = new CompletableFuture<>();
+            if (pendingPolls.putIfAbsent(endpoint, futureStatus) == null) {
+                poll(endpoint, futureStatus);
+                polls.add(futureStatus);
+            }
+        }
+        return CompletableFuture.allOf(polls.toArray(new CompletableFuture[polls.size()]));
+    }
+
+    private void poll(CanaryEndpoint endpoint, CompletableFuture<EndpointStatus> futureStatus) {
+
+        CompletableFuture<Canary> futureCanary;
+        try {
+            futureCanary = canaryClient.fetch(endpoint);
+        }
+        catch (RuntimeException e) {
+            futureCanary = new CompletableFuture<>();
+            futureCanary.completeExceptionally(e);
+        }
+        futureCanary.whenComplete((canary, error) -> {
+            EndpointStatus status = error == null
+                    ? EndpointStatus.reached(endpoint, canary, clock.millis())
+                    : statuses.get(endpoint).unreachable(describe(error), clock.millis());
+            statuses.put(endpoint, status);
+            pendingPolls.remove(endpoint);
+            futureStatus.complete(status);
+        });
+    }
+
+    private static String describe(Throwable error) {
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null
+                ? cause.getClass().getSimpleName() + ": " + cause.getMessage()
+                : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * @return the latest status of every endpoint, in the order in which the endpoints were provided
+     */
+    public Map<CanaryEndpoint, EndpointStatus> getFleetView() {
+
+        Map<CanaryEndpoint, EndpointStatus> fleetView = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> fleetView.put(endpoint, statuses.get(endpoint)));
+        return Collections.unmodifiableMap(fleetView);
+    }
+
+    /**
+     * Stops polling. Polls in progress complete, but no new poll is started.
+     */
+    @Override
+    public void close() {
+
+        scheduler.shutdownNow();
+    }
+}
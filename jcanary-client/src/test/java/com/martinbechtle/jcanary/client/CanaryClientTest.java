@@ -0,0 +1,105 @@
+package com.martinbechtle.jcanary.client;
+
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.CanaryResult;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link CanaryClient}, against a {@link StubCanaryServer}
+ *
+ * @author Martin Bechtle
+ */
+@DisplayName("Canary Client")
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class CanaryClientTest {
+
+    private final StubCanaryServer server = new StubCanaryServer();
+
+    private final CanaryClient canaryClient = new CanaryClient();
+
+    @AfterEach
+    void close() throws IOException {
+
+        canaryClient.close();
+        server.close();
+    }
+
+    @Nested
+    @DisplayName("fetch(CanaryEndpoint)")
+    class Fetch {
+
+        @Test
+        @DisplayName("should parse the canary returned by the endpoint")
+        void fetchOk() {
+
+            Canary expectedCanary = Canary.ok("stub-service", Collections.singletonList(new HealthTweet(
+                    new Dependency(DependencyImportance.PRIMARY, DependencyType.DATABASE, "db"),
+                    HealthResult.ok(),
+                    1000L,
+                    2000L,
+                    false)));
+
+            Canary canary = canaryClient.fetch(server.endpoint("/canary")).join();
+
+            assertEquals(expectedCanary, canary);
+            assertEquals(1000L, canary.getTweets().get(0).getCheckedAtMillis());
+            assertEquals(2000L, canary.getTweets().get(0).getDurationNanos());
+        }
+
+        @Test
+        @DisplayName("should decode the canary when returned in the binary encoding")
+        void fetchBinary() {
+
+            Canary canary = canaryClient.fetch(server.endpoint("/binary")).join();
+
+            assertEquals(StubCanaryServer.BINARY_CANARY, canary);
+            assertTrue(canary.getTweets().get(0).isCached());
+        }
+
+        @Test
+        @DisplayName("should send the secret in the authorization header")
+        void fetchSecured() {
+
+            assertEquals(CanaryResult.OK,
+                    canaryClient.fetch(server.endpoint("/secured", StubCanaryServer.SECRET, 1000)).join().getResult());
+            assertEquals(CanaryResult.FORBIDDEN,
+                    canaryClient.fetch(server.endpoint("/secured")).join().getResult());
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally with a timeout when the endpoint does not respond in time")
+        void fetchTimeout() {
+
+            CompletionException e = assertThrows(CompletionException.class,
+                    () -> canaryClient.fetch(server.endpoint("/slow", null, 100)).join());
+
+            assertTrue(e.getCause() instanceof TimeoutException
+                    || e.getCause() instanceof SocketTimeoutException);
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when the endpoint does not return a canary")
+        void fetchBroken() {
+
+            assertThrows(CompletionException.class, () -> canaryClient.fetch(server.endpoint("/broken")).join());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.martinbechtle.jcanary.client;
+
+import com.martinbechtle.jcanary.api.CanaryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link FleetPoller}, against a {@link StubCanaryServer}
+ *
+ * @author Martin Bechtle
+ */
+@DisplayName("Fleet Poller")
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class FleetPollerTest {
+
+    private final StubCanaryServer server = new StubCanaryServer();
+
+    private final CanaryClient canaryClient = new CanaryClient();
+
+    @AfterEach
+    void close() throws IOException {
+
+        canaryClient.close();
+        server.close();
+    }
+
+    @Nested
+    @DisplayName("poll()")
+    class Poll {
+
+        @Test
+        @DisplayName("should keep the latest status of every endpoint, in the order provided")
+        void poll() {
+
+            CanaryEndpoint okEndpoint = server.endpoint("/canary");
+            CanaryEndpoint brokenEndpoint = server.endpoint("/broken");
+            FleetPoller fleetPoller = new FleetPoller(
+                    canaryClient, Arrays.asList(brokenEndpoint, okEndpoint), Clock.systemUTC());
+
+            assertFalse(fleetPoller.getFleetView().get(okEndpoint).isReachable());
+            fleetPoller.poll().join();
+            Map<CanaryEndpoint, EndpointStatus> fleetView = fleetPoller.getFleetView();
+
+            assertEquals(Arrays.asList(brokenEndpoint, okEndpoint), Arrays.asList(fleetView.keySet().toArray()));
+            assertTrue(fleetView.get(okEndpoint).isReachable());
+            assertEquals(CanaryResult.OK, fleetView.get(okEndpoint).getCanary().getResult());
+            assertNull(fleetView.get(okEndpoint).getError());
+            assertFalse(fleetView.get(brokenEndpoint).isReachable());
+            assertNull(fleetView.get(brokenEndpoint).getCanary());
+            assertNotNull(fleetView.get(brokenEndpoint).getError());
+        }
+
+        @Test
+        @DisplayName("should not poll an endpoint again while its previous poll is in progress")
+        void pollInProgress() {
+
+            CanaryEndpoint slowEndpoint = server.endpoint("/slow", null, 5000);
+            FleetPoller fleetPoller = new FleetPoller(
+                    canaryClient, Collections.singletonList(slowEndpoint), Clock.systemUTC());
+
+            CompletableFuture<Void> firstPoll = fleetPoller.poll();
+            fleetPoller.poll().join();
+            firstPoll.join();
+
+            assertEquals(1, server.getSlowRequests());
+            assertTrue(fleetPoller.getFleetView().get(slowEndpoint).isReachable());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.martinbechtle.jcanary.client;
+
+import com.martinbechtle.jcanary.api.Canary;
+import com.martinbechtle.jcanary.api.CanaryCodec;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.DependencyType;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server standing in for the canary endpoints of a few services
+ *
+ * @author Martin Bechtle
+ */
+class StubCanaryServer implements AutoCloseable {
+
+    static final String SECRET = "secret";
+
+    static final String OK_CANARY = "{\"serviceName\":\"stub-service\",\"result\":\"OK\",\"tweets\":[" +
+            "{\"dependency\":{\"importance\":\"PRIMARY\",\"type\":\"DATABASE\",\"name\":\"db\"}," +
+            "\"result\":{\"status\":\"HEALTHY\",\"statusText\":\"\"}," +
+            "\"checkedAtMillis\":1000,\"durationNanos\":2000,\"cached\":false}]}";
+
+    static final String FORBIDDEN_CANARY = "{\"serviceName\":\"stub-service\",\"result\":\"FORBIDDEN\",\"tweets\":[]}";
+
+    static final Canary BINARY_CANARY = Canary.ok("binary-service", Collections.singletonList(new HealthTweet(
+            new Dependency(DependencyImportance.SECONDARY, DependencyType.MESSAGE_CHANNEL, "camel"),
+            HealthResult.of(DependencyStatus.CRITICAL, "Connection refused"),
+            1000L,
+            2000L,
+            true)));
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger slowRequests = new AtomicInteger();
+
+    StubCanaryServer() {
+
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/canary", exchange -> respond(exchange, 200, OK_CANARY));
+        server.createContext("/secured", exchange -> {
+            boolean authenticated = SECRET.equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            respond(exchange, authenticated ? 200 : 401, authenticated ? OK_CANARY : FORBIDDEN_CANARY);
+        });
+        server.createContext("/binary", exchange -> {
+            if (exchange.getRequestHeaders().getFirst("Accept").contains(CanaryCodec.MEDIA_TYPE)) {
+                respond(exchange, 200, CanaryCodec.MEDIA_TYPE, CanaryCodec.encode(BINARY_CANARY));
+            }
+            else {
+                respond(exchange, 406, FORBIDDEN_CANARY);
+            }
+        });
+        server.createContext("/broken", exchange -> respond(exchange, 200, "<html>not a canary</html>"));
+        server.createContext("/slow", exchange -> {
+            slowRequests.incrementAndGet();
+            try {
+                TimeUnit.SECONDS.sleep(2);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, OK_CANARY);
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    CanaryEndpoint endpoint(String path) {
+
+        return endpoint(path, null, 1000);
+    }
+
+    CanaryEndpoint endpoint(String path, String secret, long timeoutMillis) {
+
+        return new CanaryEndpoint(
+                URI.create("http://localhost:" + server.getAddress().getPort() + path),
+                secret,
+                timeoutMillis);
+    }
+
+    int getSlowRequests() {
+
+        return slowRequests.get();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+
+        respond(exchange, status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] bytes)
+            throws IOException {
+
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,419 @@
+package com.martinbechtle.jcanary.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Checks at compile time that every concrete monitor is annotated with HealthTweetDescriptor, and generates one
+ * registry of descriptors per package, so that registering monitors needs no reflection at runtime.
+ * <p>
+ * Monitors are the classes implementing HealthMonitor, AsyncHealthMonitor or BatchHealthMonitor. A concrete public
+ * monitor without the annotation, which is inherited, fails the compilation, as does the annotation on a class which
+ * is not a monitor. Non-public monitors without the annotation are only warned about, as they are often internal
+ * adapters never registered themselves.
+ * <p>
+ * Each registry is a class in the package of its monitors, named {@value #REGISTRY_SIMPLE_NAME} followed by a hash of
+ * the monitors it registers, so that the registries of different jars contributing monitors to the same package do
+ * not hide each other. Registries are listed in META-INF/services so that HealthTweeter finds them through
+ * {@link java.util.ServiceLoader}. Private monitors cannot be referenced from the registry, so they are only checked,
+ * and their descriptor is still read by reflection.
+ * <p>
+ * Enable it by adding jcanary-processor to the annotation processor path of the modules declaring monitors.
+ *
+ * @author Martin Bechtle
+ */
+@SupportedAnnotationTypes("*")
+public class HealthTweetDescriptorProcessor extends AbstractProcessor {
+
+    static final String DESCRIPTOR = "com.martinbechtle.jcanary.tweet.HealthTweetDescriptor";
+
+    static final String REGISTRY = "com.martinbechtle.jcanary.tweet.HealthTweetDescriptorRegistry";
+
+    static final String REGISTRY_SIMPLE_NAME = "JCanaryHealthTweetDescriptors";
+
+    /**
+     * Constant of each registry listing the monitors it registers, so that a later compilation of any of them can
+     * tell that the registry is out of date
+     */
+    static final String REGISTRY_MONITORS = "MONITORS";
+
+    private static final char MONITORS_SEPARATOR = ',';
+
+    private static final int HASH_BYTES = 8;
+
+    private static final String DESCRIPTORS = "com.martinbechtle.jcanary.tweet.HealthTweetDescriptors";
+
+    private static final String[] MONITORS = {
+            "com.martinbechtle.jcanary.api.HealthMonitor",
+            "com.martinbechtle.jcanary.api.AsyncHealthMonitor",
+            "com.martinbechtle.jcanary.api.BatchHealthMonitor"
+    };
+
+    private final Set<String> registries = new TreeSet<>();
+
+    /**
+     * The monitors registered by the registries of this compilation
+     */
+    private final Set<String> registeredMonitors = new TreeSet<>();
+
+    private Elements elements;
+
+    private Types types;
+
+    private Messager messager;
+
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        TypeElement descriptor = elements.getTypeElement(DESCRIPTOR);
+        if (descriptor == null) {
+            // jcanary-tweet is not on the classpath, so there is nothing to check
+            return false;
+        }
+        List<TypeMirror> monitors = new ArrayList<>();
+        for (String monitor : MONITORS) {
+            TypeElement monitorElement = elements.getTypeElement(monitor);
+            if (monitorElement != null) {
+                monitors.add(types.erasure(monitorElement.asType()));
+            }
+        }
+
+        Map<String, Map<String, String>> entriesByPackage = new LinkedHashMap<>();
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            check(type, descriptor, monitors, entriesByPackage);
+        }
+        entriesByPackage.forEach(this::writeRegistry);
+
+        if (roundEnv.processingOver()) {
+            writeServices();
+        }
+        // the annotations of the monitors are left to other processors
+        return false;
+    }
+
+    /**
+     * Checks the type and its nested types, adding the registry entries of the ones which are monitors
+     */
+    private void check(TypeElement type,
+                       TypeElement descriptor,
+                       List<TypeMirror> monitors,
+                       Map<String, Map<String, String>> entriesByPackage) {
+
+        AnnotationMirror annotation = descriptorOf(type, descriptor);
+        boolean monitor = isMonitor(type, monitors);
+        boolean concrete = !type.getModifiers().contains(Modifier.ABSTRACT);
+
+        if (monitor && concrete && annotation == null) {
+            messager.printMessage(isPublic(type) ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING,
+                    String.format("%s requires a @%s annotation",
+                            type.getQualifiedName(), descriptor.getSimpleName()),
+                    type);
+        }
+        else if (!monitor && annotation != null && type.getKind() == ElementKind.CLASS) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    String.format("@%s on %s, which is not a monitor",
+                            descriptor.getSimpleName(), type.getQualifiedName()),
+                    type);
+        }
+        else if (monitor && concrete && isAccessibleFromPackage(type)) {
+            entriesByPackage.computeIfAbsent(packageOf(type), key -> new TreeMap<>())
+                    .put(type.getQualifiedName().toString(), entry(type, annotation));
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            check(nested, descriptor, monitors, entriesByPackage);
+        }
+    }
+
+    private boolean isMonitor(TypeElement type, List<TypeMirror> monitors) {
+
+        if (type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        TypeMirror erasure = types.erasure(type.asType());
+        for (TypeMirror monitor : monitors) {
+            if (types.isAssignable(erasure, monitor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the annotation of the type, or the one inherited from its superclasses, or null if none
+     */
+    private AnnotationMirror descriptorOf(TypeElement type, TypeElement descriptor) {
+
+        for (AnnotationMirror annotation : elements.getAllAnnotationMirrors(type)) {
+            if (types.isSameType(annotation.getAnnotationType(), descriptor.asType())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the type and every type enclosing it are public, so that any other package can register it
+     */
+    private static boolean isPublic(TypeElement type) {
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if neither the type nor any type enclosing it is private
+     */
+    private static boolean isAccessibleFromPackage(TypeElement type) {
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String packageOf(TypeElement type) {
+
+        PackageElement packageElement = elements.getPackageOf(type);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+    /**
+     * @return the statement putting the descriptor of such type in the registry, with every value set explicitly
+     */
+    private String entry(TypeElement type, AnnotationMirror annotation) {
+
+        StringBuilder entry = new StringBuilder("        descriptors.put(")
+                .append(type.getQualifiedName()).append(".class, ")
+                .append(DESCRIPTORS).append(".builder()");
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            entry.append("\n                .").append(value.getKey().getSimpleName()).append('(')
+                    .append(value.getValue().accept(new ValueRenderer(), null)).append(')');
+        }
+        return entry.append("\n                .build());\n").toString();
+    }
+
+    /**
+     * @param entries the registry entries by qualified name of their monitor, sorted
+     */
+    private void writeRegistry(String packageName, Map<String, String> entries) {
+
+        String monitorNames = String.join(String.valueOf(MONITORS_SEPARATOR), entries.keySet());
+        String simpleName = REGISTRY_SIMPLE_NAME + "_" + hash(monitorNames);
+        String qualifiedName = qualify(packageName, simpleName);
+        registries.add(qualifiedName);
+        registeredMonitors.addAll(entries.keySet());
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Generated by ").append(getClass().getName()).append(", do not edit\n */\n")
+                .append("public final class ").append(simpleName).append(" implements ").append(REGISTRY)
+                .append(" {\n\n")
+                .append("    static final String ").append(REGISTRY_MONITORS).append(" = ")
+                .append(elements.getConstantExpression(monitorNames)).append(";\n\n")
+                .append("    private static final java.util.Map<Class<?>, ").append(DESCRIPTOR)
+                .append("> DESCRIPTORS = descriptors();\n\n")
+                .append("    private static java.util.Map<Class<?>, ").append(DESCRIPTOR).append("> descriptors() {\n\n")
+                .append("        java.util.Map<Class<?>, ").append(DESCRIPTOR)
+                .append("> descriptors = new java.util.HashMap<>();\n");
+        entries.values().forEach(source::append);
+        source.append("        return java.util.Collections.unmodifiableMap(descriptors);\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.Map<Class<?>, ").append(DESCRIPTOR).append("> getDescriptors() {\n\n")
+                .append("        return DESCRIPTORS;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try {
+            JavaFileObject sourceFile = filer.createSourceFile(qualifiedName);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(source.toString());
+            }
+        }
+        catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    String.format("Could not write %s: %s", qualifiedName, e.getMessage()));
+        }
+    }
+
+    private void writeServices() {
+
+        if (registries.isEmpty()) {
+            return;
+        }
+        String services = "META-INF/services/" + REGISTRY;
+        // incremental builds only compile the changed sources, so the registries of the other ones are listed already
+        Set<String> servicesEntries = readServices(services);
+        servicesEntries.addAll(registries);
+        try {
+            FileObject servicesFile = filer.createResource(StandardLocation.CLASS_OUTPUT, "", services);
+            try (Writer writer = servicesFile.openWriter()) {
+                for (String registry : servicesEntries) {
+                    writer.write(registry);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    String.format("Could not write %s: %s", services, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return the registries listed by an earlier compilation which still exist, or none if there was no such
+     * compilation. Registries that no longer exist are dropped, as ServiceLoader would fail to load them, and so are
+     * the ones registering any monitor registered again by this compilation, as their descriptors might be out of date
+     */
+    private Set<String> readServices(String services) {
+
+        Set<String> servicesEntries = new TreeSet<>();
+        try {
+            FileObject servicesFile = filer.getResource(StandardLocation.CLASS_OUTPUT, "", services);
+            try (BufferedReader reader = new BufferedReader(servicesFile.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String registry = line.trim();
+                    TypeElement registryElement = registry.isEmpty() ? null : elements.getTypeElement(registry);
+                    if (registryElement != null && !isOutOfDate(registryElement)) {
+                        servicesEntries.add(registry);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            // nothing was generated by an earlier compilation
+        }
+        return servicesEntries;
+    }
+
+    private boolean isOutOfDate(TypeElement registry) {
+
+        for (VariableElement field : ElementFilter.fieldsIn(registry.getEnclosedElements())) {
+            Object monitorNames = field.getConstantValue();
+            if (field.getSimpleName().contentEquals(REGISTRY_MONITORS) && monitorNames instanceof String) {
+                for (String monitorName : ((String) monitorNames).split(String.valueOf(MONITORS_SEPARATOR))) {
+                    if (registeredMonitors.contains(monitorName)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a hash of the monitor names, stable across compilations
+     */
+    private static String hash(String monitorNames) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(monitorNames.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder();
+            for (int i = 0; i < HASH_BYTES; i++) {
+                hash.append(String.format("%02x", digest[i]));
+            }
+            return hash.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String qualify(String packageName, String simpleName) {
+
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    /**
+     * Renders annotation values as Java expressions
+     */
+    private final class ValueRenderer extends SimpleAnnotationValueVisitor8<String, Void> {
+
+        @Override
+        protected String defaultAction(Object value, Void ignored) {
+
+            return elements.getConstantExpression(value);
+        }
+
+        @Override
+        public String visitEnumConstant(VariableElement constant, Void ignored) {
+
+            return ((TypeElement) constant.getEnclosingElement()).getQualifiedName() + "." + constant.getSimpleName();
+        }
+
+        @Override
+        public String visitArray(List<? extends AnnotationValue> values, Void ignored) {
+
+            StringBuilder array = new StringBuilder();
+            for (AnnotationValue value : values) {
+                array.append(array.length() == 0 ? "" : ", ").append(value.accept(this, null));
+            }
+            return array.toString();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.martinbechtle.jcanary.processor;
+
+import com.martinbechtle.jcanary.tweet.HealthTweetDescriptor;
+import com.martinbechtle.jcanary.tweet.HealthTweetDescriptorRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link HealthTweetDescriptorProcessor}, compiling sample monitors with the system Java compiler
+ *
+ * @author Martin Bechtle
+ */
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class HealthTweetDescriptorProcessorTest {
+
+    private static final String IMPORTS = "import com.martinbechtle.jcanary.api.*;\n"
+            + "import com.martinbechtle.jcanary.tweet.HealthTweetDescriptor;\n";
+
+    private static final String REGISTRY_PREFIX = "com.example." + HealthTweetDescriptorProcessor.REGISTRY_SIMPLE_NAME;
+
+    private final Path directory = createTempDirectory();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @AfterEach
+    void delete() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Nested
+    @DisplayName("process(Set, RoundEnvironment)")
+    class Process {
+
+        @Test
+        @DisplayName("should generate a registry with the same descriptors as the annotations, including inherited ones")
+        void processRegistry() throws Exception {
+
+            assertTrue(compile("DatabaseMonitor",
+                    "public abstract class DatabaseMonitor implements HealthMonitor {\n"
+                            + "    public HealthResult check() { return HealthResult.ok(); }\n"
+                            + "    @HealthTweetDescriptor(name = \"broker\", type = DependencyType.MESSAGE_CHANNEL,\n"
+                            + "            timeoutMillis = 500L, dependsOn = { \"vpn\", \"dns\" })\n"
+                            + "    static class BrokerMonitor extends DatabaseMonitor { }\n"
+                            + "    @HealthTweetDescriptor(name = \"private\")\n"
+                            + "    private static class PrivateMonitor extends DatabaseMonitor { }\n"
+                            + "}\n"
+                            + "@HealthTweetDescriptor(name = \"database\", secondsToLive = 30)\n"
+                            + "class AnnotatedDatabaseMonitor extends DatabaseMonitor { }\n"
+                            + "class InheritingDatabaseMonitor extends AnnotatedDatabaseMonitor { }\n"),
+                    diagnostics.getDiagnostics().toString());
+
+            List<String> services = readServices();
+            assertEquals(1, services.size());
+            assertTrue(services.get(0).startsWith(REGISTRY_PREFIX));
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{ directory.toUri().toURL() },
+                    getClass().getClassLoader())) {
+
+                HealthTweetDescriptorRegistry registry = (HealthTweetDescriptorRegistry) classLoader
+                        .loadClass(services.get(0))
+                        .newInstance();
+                Map<Class<?>, HealthTweetDescriptor> descriptors = registry.getDescriptors();
+
+                assertEquals(3, descriptors.size());
+                for (String monitor : Arrays.asList(
+                        "DatabaseMonitor$BrokerMonitor", "AnnotatedDatabaseMonitor", "InheritingDatabaseMonitor")) {
+                    Class<?> monitorClass = classLoader.loadClass("com.example." + monitor);
+                    HealthTweetDescriptor annotation = monitorClass.getAnnotation(HealthTweetDescriptor.class);
+                    HealthTweetDescriptor generated = descriptors.get(monitorClass);
+
+                    assertEquals(annotation, generated);
+                    assertEquals(generated, annotation);
+                    assertEquals(annotation.hashCode(), generated.hashCode());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should keep listing the registries of earlier compilations, unless they no longer exist")
+        void processIncremental() throws IOException {
+
+            Path services = directory.resolve("META-INF/services/" + HealthTweetDescriptorProcessor.REGISTRY);
+            Files.createDirectories(services.getParent());
+            Files.write(services, Arrays.asList("com.deleted.Registry"), StandardCharsets.UTF_8);
+            String monitor = "public class %s implements HealthMonitor {\n"
+                    + "    public HealthResult check() { return HealthResult.ok(); }\n"
+                    + "}\n";
+
+            assertTrue(compile("com.example", "DatabaseMonitor",
+                    "@HealthTweetDescriptor(name = \"database\")\n" + String.format(monitor, "DatabaseMonitor")));
+            assertTrue(compile("com.example.other", "BrokerMonitor",
+                    "@HealthTweetDescriptor(name = \"broker\")\n" + String.format(monitor, "BrokerMonitor")));
+
+            List<String> registries = Files.readAllLines(services);
+            assertEquals(2, registries.size());
+            assertTrue(registries.get(0).startsWith(REGISTRY_PREFIX));
+            assertTrue(registries.get(1).startsWith("com.example.other."));
+        }
+
+        @Test
+        @DisplayName("should generate registries with distinct names for monitors of the same package compiled apart")
+        void processSamePackage() throws IOException {
+
+            String monitor = "public class %s implements HealthMonitor {\n"
+                    + "    public HealthResult check() { return HealthResult.ok(); }\n"
+                    + "}\n";
+
+            assertTrue(compile("DatabaseMonitor",
+                    "@HealthTweetDescriptor(name = \"database\")\n" + String.format(monitor, "DatabaseMonitor")));
+            assertTrue(compile("BrokerMonitor",
+                    "@HealthTweetDescriptor(name = \"broker\")\n" + String.format(monitor, "BrokerMonitor")));
+
+            List<String> registries = readServices();
+            assertEquals(2, registries.size());
+            for (String registry : registries) {
+                assertTrue(Files.exists(directory.resolve(registry.replace('.', '/') + ".class")), registry);
+            }
+        }
+
+        @Test
+        @DisplayName("should stop listing an earlier registry when any of its monitors is registered again")
+        void processRecompiled() throws Exception {
+
+            String monitor = "public class DatabaseMonitor implements HealthMonitor {\n"
+                    + "    public HealthResult check() { return HealthResult.ok(); }\n"
+                    + "}\n";
+            String brokerMonitor = "@HealthTweetDescriptor(name = \"broker\")\n"
+                    + "class BrokerMonitor extends DatabaseMonitor { }\n";
+
+            assertTrue(compile("DatabaseMonitor",
+                    "@HealthTweetDescriptor(name = \"database\")\n" + monitor + brokerMonitor));
+            String earlierRegistry = readServices().get(0);
+            assertTrue(compile("DatabaseMonitor", "@HealthTweetDescriptor(name = \"db\")\n" + monitor));
+
+            List<String> registries = readServices();
+            assertEquals(1, registries.size());
+            assertNotEquals(earlierRegistry, registries.get(0));
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{ directory.toUri().toURL() },
+                    getClass().getClassLoader())) {
+
+                HealthTweetDescriptorRegistry registry = (HealthTweetDescriptorRegistry) classLoader
+                        .loadClass(registries.get(0))
+                        .newInstance();
+                assertEquals("db", registry.getDescriptors()
+                        .get(classLoader.loadClass("com.example.DatabaseMonitor"))
+                        .name());
+            }
+        }
+
+        @Test
+        @DisplayName("should fail the compilation when a concrete public monitor has no descriptor")
+        void processMissingDescriptor() throws IOException {
+
+            assertFalse(compile("AbstractMonitor",
+                    "public abstract class AbstractMonitor implements AsyncHealthMonitor {\n"
+                            + "    public static class UndescribedMonitor implements HealthMonitor {\n"
+                            + "        public HealthResult check() { return HealthResult.ok(); }\n"
+                            + "    }\n"
+                            + "}\n"));
+            assertEquals(1, errors().size());
+            assertTrue(errors().get(0).contains(
+                    "com.example.AbstractMonitor.UndescribedMonitor requires a @HealthTweetDescriptor"));
+        }
+
+        @Test
+        @DisplayName("should only warn when a concrete monitor which is not public has no descriptor")
+        void processMissingDescriptorInternal() throws IOException {
+
+            assertTrue(compile("AbstractMonitor",
+                    "public abstract class AbstractMonitor implements AsyncHealthMonitor { }\n"
+                            + "class UndescribedMonitor implements HealthMonitor {\n"
+                            + "    public HealthResult check() { return HealthResult.ok(); }\n"
+                            + "}\n"));
+            assertTrue(diagnostics.getDiagnostics().stream().anyMatch(diagnostic ->
+                    diagnostic.getKind() == Diagnostic.Kind.WARNING && diagnostic.getMessage(null)
+                            .contains("com.example.UndescribedMonitor requires a @HealthTweetDescriptor")));
+        }
+
+        @Test
+        @DisplayName("should fail the compilation when a descriptor is on a class which is not a monitor")
+        void processNotMonitor() throws IOException {
+
+            assertFalse(compile("NotMonitor",
+                    "@HealthTweetDescriptor(name = \"nothing\")\npublic class NotMonitor { }\n"));
+            assertEquals(1, errors().size());
+            assertTrue(errors().get(0).contains("com.example.NotMonitor, which is not a monitor"));
+        }
+    }
+
+    /**
+     * Compiles a source file in the com.example package
+     */
+    private boolean compile(String className, String source) throws IOException {
+
+        return compile("com.example", className, source);
+    }
+
+    /**
+     * @param packageName the package of the source file, whose earlier compilations are on the classpath
+     * @param className   the name of the public class in the source file
+     * @param source      the declarations of the source file, without package and imports
+     * @return true if the compilation succeeded
+     */
+    private boolean compile(String packageName, String className, String source) throws IOException {
+
+        Path sourceFile = directory.resolve(className + ".java");
+        Files.write(sourceFile, ("package " + packageName + ";\n" + IMPORTS + source).getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path") + File.pathSeparator + directory,
+                    "-d", directory.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(sourceFile.toFile()));
+            task.setProcessors(Arrays.asList(new HealthTweetDescriptorProcessor()));
+            return task.call();
+        }
+    }
+
+    private List<String> readServices() throws IOException {
+
+        return Files.readAllLines(directory.resolve("META-INF/services/" + HealthTweetDescriptorProcessor.REGISTRY));
+    }
+
+    private List<String> errors() {
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private static Path createTempDirectory() {
+
+        try {
+            return Files.createTempDirectory("jcanary-processor");
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
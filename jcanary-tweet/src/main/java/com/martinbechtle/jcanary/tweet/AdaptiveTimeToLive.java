@@ -0,0 +1,88 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.DependencyStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time to live of the results of a {@link com.martinbechtle.jcanary.api.HealthMonitor}, as configured by
+ * {@link HealthTweetDescriptor#secondsToLive()}, optionally adapting to the status reported.
+ * <p>
+ * While the dependency stays {@link DependencyStatus#HEALTHY}, the time to live doubles at every result, up to the
+ * maximum, so that healthy dependencies are checked less and less often. Any other status shrinks it to the minimum,
+ * so that failing dependencies are checked often enough to notice their recovery, after which it starts stretching
+ * again from the configured value.
+ * <p>
+ * Each time to live is then lengthened by a random jitter, so that many instances of a service started at the same
+ * time do not keep checking a shared dependency in the same second.
+ *
+ * @author Martin Bechtle
+ */
+class AdaptiveTimeToLive {
+
+    private final long timeToLiveMillis;
+
+    private final long minTimeToLiveMillis;
+
+    private final long maxTimeToLiveMillis;
+
+    private final int jitterPercent;
+
+    private volatile long healthyTimeToLiveMillis;
+
+    /**
+     * @param timeToLiveMillis    the configured time to live, negative to never cache
+     * @param minTimeToLiveMillis time to live while not healthy, if positive and lower than timeToLiveMillis
+     * @param maxTimeToLiveMillis time to live to stretch to while healthy, if higher than timeToLiveMillis
+     * @param jitterPercent       maximum jitter, as a percentage of each time to live. Non positive for no jitter
+     */
+    AdaptiveTimeToLive(long timeToLiveMillis, long minTimeToLiveMillis, long maxTimeToLiveMillis, int jitterPercent) {
+
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.minTimeToLiveMillis = minTimeToLiveMillis > 0
+                ? Math.min(minTimeToLiveMillis, timeToLiveMillis)
+                : timeToLiveMillis;
+        this.maxTimeToLiveMillis = Math.max(maxTimeToLiveMillis, timeToLiveMillis);
+        this.jitterPercent = Math.max(0, jitterPercent);
+        this.healthyTimeToLiveMillis = timeToLiveMillis;
+    }
+
+    static AdaptiveTimeToLive of(HealthTweetDescriptor descriptor) {
+
+        return new AdaptiveTimeToLive(
+                descriptor.secondsToLive() * 1000L,
+                descriptor.minSecondsToLive() * 1000L,
+                descriptor.maxSecondsToLive() * 1000L,
+                descriptor.jitterPercent());
+    }
+
+    /**
+     * @param status the status just reported by the monitor
+     * @return the time to live of such result, jitter included
+     */
+    long next(DependencyStatus status) {
+
+        if (timeToLiveMillis <= 0) {
+            return timeToLiveMillis;
+        }
+        long next;
+        if (status == DependencyStatus.HEALTHY) {
+            // racing checks might stretch it one step less or more, which is harmless
+            next = healthyTimeToLiveMillis;
+            healthyTimeToLiveMillis = Math.min(maxTimeToLiveMillis, next * 2);
+        }
+        else {
+            next = minTimeToLiveMillis;
+            healthyTimeToLiveMillis = timeToLiveMillis;
+        }
+        return jitterPercent == 0 ? next : next + ThreadLocalRandom.current().nextLong(next * jitterPercent / 100 + 1);
+    }
+
+    /**
+     * @return the configured time to live, without adaptation nor jitter
+     */
+    long getTimeToLiveMillis() {
+
+        return timeToLiveMillis;
+    }
+}
@@ -0,0 +1,220 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.BatchHealthMonitor;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.HealthMonitor;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.martinbechtle.jrequire.Require.notNull;
+
+/**
+ * One {@link HealthTweeter} per {@link Dependency} of a {@link BatchHealthMonitor}, all sharing the same check.
+ * <p>
+ * When the {@link HealthTweet} of any member expires, the whole batch is checked once and the results of all the
+ * other members are cached at the same time, recorded as checked, so that the next members asking for a result do not
+ * check the batch again. A single time to live is picked for each check of the batch, jitter included, so that all
+ * members keep expiring together.
+ *
+ * @author Martin Bechtle
+ */
+class BatchHealthTweeters {
+
+    static final String NOT_REPORTED_ERRMSG = "Status not reported by batch";
+
+    /**
+     * Returned to a member whose result was cached by another member checking the batch while it waited for it, so
+     * that its {@link HealthTweeter} serves such result as is, instead of recording the same check once more
+     */
+    static final HealthResult CACHED_BY_BATCH = HealthResult.of(DependencyStatus.UNKNOWN, "Cached by batch");
+
+    private final BatchHealthMonitor monitor;
+
+    private final Clock clock;
+
+    private final Map<String, HealthTweeter> members = new LinkedHashMap<>();
+
+    private final Lock checkLock = new ReentrantLock();
+
+    private final AdaptiveTimeToLive timeToLive;
+
+    /**
+     * Expiry of the results of the last check of the batch, or null if never checked
+     */
+    private volatile Expiry expiry;
+
+    /**
+     * @param monitor  mandatory, its {@link HealthTweetDescriptor} applies to every member
+     * @param clock    mandatory
+     * @param executor mandatory
+     * @throws IllegalArgumentException if the monitor has no {@link HealthTweetDescriptor}, declares no
+     *                                  {@link Dependency} or declares two with the same name
+     */
+    BatchHealthTweeters(BatchHealthMonitor monitor, Clock clock, Executor executor) {
+
+        this.monitor = notNull(monitor, "monitor");
+        this.clock = notNull(clock, "clock");
+        HealthTweetDescriptor descriptor = HealthTweeter.descriptorOf(monitor);
+        this.timeToLive = AdaptiveTimeToLive.of(descriptor);
+        List<Dependency> dependencies = notNull(monitor.dependencies(), "dependencies");
+
+        if (dependencies.isEmpty()) {
+            throw new IllegalArgumentException(
+                    String.format("%s %s declares no dependency", BatchHealthMonitor.class.getSimpleName(),
+                            descriptor.name()));
+        }
+        for (Dependency dependency : dependencies) {
+            String name = dependency.getName();
+            if (members.containsKey(name)) {
+                throw new IllegalArgumentException(
+                        String.format("%s %s declares dependency %s twice", BatchHealthMonitor.class.getSimpleName(),
+                                descriptor.name(), name));
+            }
+            members.put(name, new HealthTweeter(new Member(name), dependency, descriptor, clock, executor));
+        }
+    }
+
+    /**
+     * @return the members, in the order in which the monitor declared its dependencies
+     */
+    Collection<HealthTweeter> getHealthTweeters() {
+
+        return Collections.unmodifiableCollection(members.values());
+    }
+
+    /**
+     * Invoked by the member with such name when its {@link HealthTweet} expired
+     *
+     * @return the result of such member, or {@link #CACHED_BY_BATCH} if another member checked the batch meanwhile
+     */
+    private HealthResult check(String name) {
+
+        checkLock.lock();
+        try {
+            // another member might have checked the batch while this one was waiting for the lock
+            if (members.get(name).getLastHealthTweetIfNotExpired() != null) {
+                return CACHED_BY_BATCH;
+            }
+            long checkedAtMillis = clock.millis();
+            long startNanos = System.nanoTime();
+            Map<String, HealthResult> results;
+            try {
+                results = notNull(monitor.check(), "results");
+            }
+            catch (RuntimeException e) {
+                cacheOthers(name, Collections.emptyMap(), HealthAggregator.UNCAUGTHT_EXCEPTION_ERRMSG,
+                        checkedAtMillis, System.nanoTime() - startNanos);
+                throw e;
+            }
+            cacheOthers(name, results, NOT_REPORTED_ERRMSG, checkedAtMillis, System.nanoTime() - startNanos);
+            return resultOf(results, name, NOT_REPORTED_ERRMSG);
+        }
+        finally {
+            checkLock.unlock();
+        }
+    }
+
+    /**
+     * Caches the results of all members but the one with such name, which caches its own with the same expiry
+     */
+    private void cacheOthers(String name,
+                             Map<String, HealthResult> results,
+                             String missingStatusText,
+                             long checkedAtMillis,
+                             long durationNanos) {
+
+        DependencyStatus status = DependencyStatus.HEALTHY;
+        for (HealthTweeter member : members.values()) {
+            DependencyStatus memberStatus = resultOf(results, member.getName(), missingStatusText).getStatus();
+            if (memberStatus != DependencyStatus.HEALTHY) {
+                // any failing member shortens the time to live of the batch, so that its recovery is noticed
+                status = memberStatus;
+                break;
+            }
+        }
+        long timeToLiveMillis = timeToLive.next(status);
+        Expiry checkExpiry = new Expiry(checkedAtMillis + timeToLiveMillis, timeToLiveMillis);
+        expiry = checkExpiry;
+
+        for (HealthTweeter member : members.values()) {
+            if (!member.getName().equals(name)) {
+                member.cacheChecked(new HealthTweet(
+                        member.getDependency(),
+                        resultOf(results, member.getName(), missingStatusText),
+                        checkedAtMillis,
+                        durationNanos,
+                        false), checkExpiry.expiryTimeMillis, checkExpiry.timeToLiveMillis);
+            }
+        }
+    }
+
+    private static HealthResult resultOf(Map<String, HealthResult> results, String name, String missingStatusText) {
+
+        HealthResult result = results.get(name);
+        return result != null ? result : HealthResult.of(DependencyStatus.UNKNOWN, missingStatusText);
+    }
+
+    /**
+     * The monitor of each member, checking the whole batch
+     */
+    final class Member implements HealthMonitor {
+
+        private final String name;
+
+        private Member(String name) {
+
+            this.name = name;
+        }
+
+        @Override
+        public HealthResult check() {
+
+            return BatchHealthTweeters.this.check(name);
+        }
+
+        /**
+         * @return the expiry of the results of the last check of the batch, or null if never checked
+         */
+        Expiry getExpiry() {
+
+            return expiry;
+        }
+    }
+
+    /**
+     * Immutable pair of the time at which the results of a check of the batch expire, and their time to live
+     */
+    static final class Expiry {
+
+        private final long expiryTimeMillis;
+
+        private final long timeToLiveMillis;
+
+        private Expiry(long expiryTimeMillis, long timeToLiveMillis) {
+
+            this.expiryTimeMillis = expiryTimeMillis;
+            this.timeToLiveMillis = timeToLiveMillis;
+        }
+
+        long getExpiryTimeMillis() {
+
+            return expiryTimeMillis;
+        }
+
+        long getTimeToLiveMillis() {
+
+            return timeToLiveMillis;
+        }
+    }
+}
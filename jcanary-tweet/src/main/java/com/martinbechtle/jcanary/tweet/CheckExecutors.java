@@ -0,0 +1,163 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.HealthMonitor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of {@link ExecutorService}s suitable for invoking blocking {@link HealthMonitor}s, to be provided to
+ * {@link HealthAggregator} or {@link HealthTweeter}.
+ * <p>
+ * On Java 21 or greater every check runs on its own virtual thread, so that hundreds of monitors blocking on JDBC or
+ * HTTP calls do not need hundreds of platform threads. On older JVMs a bounded pool of platform threads is used, which
+ * rejects any task while all its threads are busy rather than queueing it: a check waiting in a queue behind hung ones
+ * would time out without ever being invoked, whereas a rejected one is reported as such.
+ * The virtual thread executor is looked up reflectively, so that this library can still be compiled for Java 8.
+ *
+ * @author Martin Bechtle
+ */
+public final class CheckExecutors {
+
+    /**
+     * Maximum number of platform threads of the executor used when none is provided
+     */
+    static final int DEFAULT_MAX_PLATFORM_THREADS = 8;
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * How long a task waits for a thread of a full platform pool to pick it up before being rejected, so that threads
+     * just done with their previous task are not mistaken for hung ones
+     */
+    private static final long HANDOFF_TIMEOUT_MILLIS = 10L;
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private CheckExecutors() {
+
+    }
+
+    /**
+     * @param maxPlatformThreads maximum number of threads, on JVMs without virtual threads. Must be positive
+     * @return a new executor running one virtual thread per task if supported by the JVM, otherwise a pool of at most
+     * maxPlatformThreads daemon threads, rejecting any further task. Its lifecycle is up to the caller
+     */
+    public static ExecutorService newCheckExecutor(int maxPlatformThreads) {
+
+        if (maxPlatformThreads <= 0) {
+            throw new IllegalArgumentException("maxPlatformThreads must be positive");
+        }
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+            }
+            catch (Throwable e) {
+                // virtual threads unusable in this JVM after all, the platform pool still works
+            }
+        }
+        return newPlatformThreadExecutor(maxPlatformThreads);
+    }
+
+    /**
+     * @return true if the JVM supports virtual threads, in which case {@link #newCheckExecutor(int)} uses them
+     */
+    public static boolean isVirtualThreadSupported() {
+
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @return the executor shared by any {@link HealthTweeter} or {@link HealthAggregator} created without one, a
+     * {@link #newCheckExecutor(int)} of at most {@link #DEFAULT_MAX_PLATFORM_THREADS} daemon threads created on first
+     * use, so that hung checks never starve the common pool used by the rest of the application
+     */
+    static ExecutorService defaultExecutor() {
+
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * @return the executor running the checks bound by a timeout, shared by every {@link HealthTweeter} and separate
+     * from the one they tweet on, so that tweets holding all the threads of a pool never wait for checks queued on it.
+     * A {@link #newCheckExecutor(int)} of at most {@link #DEFAULT_MAX_PLATFORM_THREADS} daemon threads created on first
+     * use
+     */
+    static ExecutorService timeoutExecutor() {
+
+        return TimeoutExecutorHolder.EXECUTOR;
+    }
+
+    static ExecutorService newPlatformThreadExecutor(int maxThreads) {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CheckThreadFactory(),
+                CheckExecutors::handOff);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void handOff(Runnable task, ThreadPoolExecutor executor) {
+
+        try {
+            if (!executor.isShutdown()
+                    && executor.getQueue().offer(task, HANDOFF_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RejectedExecutionException("All " + executor.getMaximumPoolSize() + " check threads are busy");
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutor() {
+
+        try {
+            return MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static class DefaultExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = newCheckExecutor(DEFAULT_MAX_PLATFORM_THREADS);
+    }
+
+    private static class TimeoutExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = newCheckExecutor(DEFAULT_MAX_PLATFORM_THREADS);
+    }
+
+    private static class CheckThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, "jcanary-check-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
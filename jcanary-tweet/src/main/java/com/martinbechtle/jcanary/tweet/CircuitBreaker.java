@@ -0,0 +1,55 @@
+package com.martinbechtle.jcanary.tweet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stops invoking a {@link com.martinbechtle.jcanary.api.HealthMonitor} for a while after it timed out a number of
+ * consecutive times, so that a dead dependency is not hammered and does not tie up threads.
+ * <p>
+ * Once the open period has passed, the next invocation acts as a trial: a further timeout opens the circuit again
+ * straight away, while any completed invocation closes it.
+ *
+ * @author Martin Bechtle
+ */
+class CircuitBreaker {
+
+    private final int timeoutsToOpen;
+
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveTimeouts = new AtomicInteger();
+
+    private volatile long openUntilMillis = Long.MIN_VALUE;
+
+    /**
+     * @param timeoutsToOpen number of consecutive timeouts after which the circuit opens. Non positive to never open
+     * @param openMillis     how long the circuit stays open
+     */
+    CircuitBreaker(int timeoutsToOpen, long openMillis) {
+
+        this.timeoutsToOpen = timeoutsToOpen;
+        this.openMillis = openMillis;
+    }
+
+    boolean isOpenAt(long timeMillis) {
+
+        return timeMillis < openUntilMillis;
+    }
+
+    long getOpenUntilMillis() {
+
+        return openUntilMillis;
+    }
+
+    void onCompletion() {
+
+        consecutiveTimeouts.set(0);
+    }
+
+    void onTimeout(long timeMillis) {
+
+        if (timeoutsToOpen > 0 && consecutiveTimeouts.incrementAndGet() >= timeoutsToOpen) {
+            openUntilMillis = timeMillis + openMillis;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Selects the dependencies to collect with {@link HealthAggregator#collect(DependencyFilter)}, by importance, type and
+ * name, for example to only check the {@link DependencyImportance#PRIMARY} ones.
+ * <p>
+ * A dependency is selected if it meets every criterion, and it meets a criterion if it has any of its values. An empty
+ * criterion is met by any dependency, so {@link #ALL} selects them all.
+ *
+ * @author Martin Bechtle
+ */
+public final class DependencyFilter {
+
+    public static final DependencyFilter ALL = of(null, null, null);
+
+    private final Set<DependencyImportance> importances;
+
+    private final Set<DependencyType> types;
+
+    private final Set<String> names;
+
+    private DependencyFilter(Set<DependencyImportance> importances, Set<DependencyType> types, Set<String> names) {
+
+        this.importances = importances;
+        this.types = types;
+        this.names = names;
+    }
+
+    /**
+     * @param importances the importances to select, or null or empty for any
+     * @param types       the types to select, or null or empty for any
+     * @param names       the names to select, or null or empty for any
+     */
+    public static DependencyFilter of(Collection<DependencyImportance> importances,
+                                      Collection<DependencyType> types,
+                                      Collection<String> names) {
+
+        EnumSet<DependencyImportance> importanceSet = EnumSet.noneOf(DependencyImportance.class);
+        if (importances != null) {
+            importanceSet.addAll(importances);
+        }
+        EnumSet<DependencyType> typeSet = EnumSet.noneOf(DependencyType.class);
+        if (types != null) {
+            typeSet.addAll(types);
+        }
+        Set<String> nameSet = names == null ? Collections.emptySet() : new LinkedHashSet<>(names);
+        return new DependencyFilter(
+                Collections.unmodifiableSet(importanceSet),
+                Collections.unmodifiableSet(typeSet),
+                Collections.unmodifiableSet(nameSet));
+    }
+
+    public static DependencyFilter importance(DependencyImportance importance) {
+
+        return of(Collections.singleton(importance), null, null);
+    }
+
+    /**
+     * @return true if any dependency is selected
+     */
+    public boolean isAll() {
+
+        return importances.isEmpty() && types.isEmpty() && names.isEmpty();
+    }
+
+    public boolean matches(Dependency dependency) {
+
+        return (importances.isEmpty() || importances.contains(dependency.getImportance()))
+                && (types.isEmpty() || types.contains(dependency.getType()))
+                && (names.isEmpty() || names.contains(dependency.getName()));
+    }
+
+    /**
+     * @return the importances to select, empty for any
+     */
+    public Set<DependencyImportance> getImportances() {
+
+        return importances;
+    }
+
+    /**
+     * @return the types to select, empty for any
+     */
+    public Set<DependencyType> getTypes() {
+
+        return types;
+    }
+
+    /**
+     * @return the names to select, empty for any
+     */
+    public Set<String> getNames() {
+
+        return names;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DependencyFilter that = (DependencyFilter) o;
+        return importances.equals(that.importances)
+                && types.equals(that.types)
+                && names.equals(that.names);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(importances, types, names);
+    }
+
+    @Override
+    public String toString() {
+
+        return "DependencyFilter{" +
+                "importances=" + importances +
+                ", types=" + types +
+                ", names=" + names +
+                '}';
+    }
+}
@@ -1,14 +1,31 @@
 package com.martinbechtle.jcanary.tweet;
 
+import com.martinbechtle.jcanary.api.AsyncHealthMonitor;
+import com.martinbechtle.jcanary.api.BatchHealthMonitor;
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
 import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.DependencyType;
 import com.martinbechtle.jcanary.api.HealthMonitor;
 import com.martinbechtle.jcanary.api.HealthResult;
 import com.martinbechtle.jcanary.api.HealthTweet;
 import com.martinbechtle.jrequire.Require;
 
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.stream.Collectors.toList;
 
@@ -17,21 +34,104 @@ import static java.util.stream.Collectors.toList;
  * <p>
  * You would typically use this as a singleton, registering all monitors on it and invoking it regularly from your
  * canary endpoint as a health check.
+ * <p>
+ * By default monitors are invoked sequentially on the calling thread. If an {@link Executor} is provided, the
+ * monitors whose cached result has expired are invoked in parallel on such executor, so that the time taken by
+ * {@link #collect()} is bound by the slowest monitor rather than by the sum of all of them.
+ * {@link #collectAsync()} does the same without blocking the calling thread.
+ * <p>
+ * Alternatively, monitors can be refreshed in the background with {@link #refreshInBackground(RefreshScheduler)},
+ * in which case {@link #collect()} never invokes any monitor and just reads the latest results.
+ * <p>
+ * Monitors can depend on others with {@link HealthTweetDescriptor#dependsOn()}: while a prerequisite is
+ * {@link DependencyStatus#CRITICAL}, or skipped itself, its dependents are not invoked and are reported as
+ * {@link DependencyStatus#UNKNOWN} with the reason. As prerequisites must be registered first, registration order is a
+ * topological order: collecting sequentially simply follows it, while collecting in parallel starts every monitor as
+ * soon as its own prerequisites complete.
+ * <p>
+ * {@link #collect(DependencyFilter)} only collects the dependencies with the given importance, type or name, looked up
+ * in indexes rather than by going through every monitor, so that for example a load balancer only triggers the checks
+ * of {@link DependencyImportance#PRIMARY} dependencies.
+ * <p>
+ * With {@link #shareResults(SharedStatusTable)}, the processes of the same service on one host share their results,
+ * so that each dependency is checked by one of them at a time.
+ * <p>
+ * {@link #collect()} returns the very same list as long as every monitor returns the very same {@link HealthTweet},
+ * which is the case while results are cached, so that frequent canary requests allocate next to nothing.
  *
  * @author Martin Bechtle
  */
 public class HealthAggregator {
 
+    /**
+     * Only accessed while registering, under snapshotLock
+     */
     private final LinkedHashMap<String, HealthTweeter> healthTweets;
 
+    /**
+     * Same as the values of healthTweets, with their prerequisites, as an array that can be iterated without
+     * allocating an iterator, and without locking while another monitor is registered
+     */
+    private volatile Node[] nodes = new Node[0];
+
+    /**
+     * The last list returned by {@link #collect()}, returned again as long as it contains the same tweets
+     */
+    private volatile List<HealthTweet> lastCollected = Collections.emptyList();
+
+    /**
+     * The positions of the nodes by importance, type and name, built again on first use after a registration
+     */
+    private volatile Index index;
+
     private final Clock clock;
 
+    private final Executor executor;
+
+    private final List<HealthTweetListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Long> changedAtVersions = new HashMap<>();
+
+    private final Object snapshotLock = new Object();
+
+    private volatile HealthSnapshot snapshot;
+
+    private volatile RefreshScheduler refreshScheduler;
+
+    private volatile SharedStatusTable sharedStatusTable;
+
     static final String UNCAUGTHT_EXCEPTION_ERRMSG = "Error while trying to compute status";
 
+    static final String NOT_COMPUTED_YET_ERRMSG = "Status not computed yet";
+
+    static final String PREREQUISITE_FAILED_ERRMSG = "Not checked as prerequisite %s failed";
+
+    /**
+     * Fraction of the time to live, before expiry, at which monitors are refreshed in the background
+     */
+    private static final int REFRESH_AHEAD_DIVISOR = 10;
+
     public HealthAggregator(Clock clock) {
 
         this.clock = clock;
+        this.executor = null;
+        this.healthTweets = new LinkedHashMap<>();
+        this.snapshot = initialSnapshot(clock);
+    }
+
+    /**
+     * Creates an aggregator that invokes expired {@link HealthMonitor}s in parallel.
+     *
+     * @param clock    mandatory
+     * @param executor mandatory, used to invoke the monitors. A bounded thread pool is recommended: if the executor
+     *                 rejects a task, the monitor is invoked on the calling thread instead
+     */
+    public HealthAggregator(Clock clock, Executor executor) {
+
+        this.clock = clock;
+        this.executor = Require.notNull(executor, "executor");
         this.healthTweets = new LinkedHashMap<>();
+        this.snapshot = initialSnapshot(clock);
     }
 
     /**
@@ -45,40 +145,735 @@ public class HealthAggregator {
 
         Require.notNull(monitor);
 
-        HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+        return register(executor == null
+                ? new HealthTweeter(monitor, clock)
+                : new HealthTweeter(monitor, clock, executor));
+    }
+
+    /**
+     * Register a {@link BatchHealthMonitor}, which is reported as one {@link HealthTweet} per declared
+     * {@link Dependency}, in the declared order. The batch is checked once whenever such tweets expire.
+     *
+     * @param monitor mandatory, annotated with a {@link HealthTweetDescriptor} that applies to all its dependencies
+     * @return an instance of this object for method chaining
+     * @throws IllegalArgumentException if the monitor is invalid, or a {@link HealthMonitor} with the same name as any
+     *                                  of its dependencies was already registered
+     */
+    public HealthAggregator register(BatchHealthMonitor monitor) {
+
+        Require.notNull(monitor);
+
+        BatchHealthTweeters batch = new BatchHealthTweeters(
+                monitor,
+                clock,
+                executor == null ? CheckExecutors.defaultExecutor() : executor);
+        synchronized (snapshotLock) {
+            batch.getHealthTweeters().forEach(healthTweeter -> {
+                requireUnique(healthTweeter.getName());
+                requirePrerequisites(healthTweeter);
+            });
+        }
+        batch.getHealthTweeters().forEach(this::register);
+        return this;
+    }
+
+    HealthAggregator register(HealthTweeter healthTweeter) {
+
         String healthTweeterName = healthTweeter.getName();
 
+        SharedStatusTable currentSharedStatusTable = sharedStatusTable;
+        if (currentSharedStatusTable != null) {
+            healthTweeter.shareResults(currentSharedStatusTable);
+        }
+        healthTweeter.setListener(healthTweet -> onChange(healthTweeter, healthTweet));
+        Node node;
+        // the snapshot is built from the nodes under the same lock, so it never misses a monitor being registered
+        synchronized (snapshotLock) {
+            requireUnique(healthTweeterName);
+            node = new Node(healthTweeter, requirePrerequisites(healthTweeter));
+            this.healthTweets.put(healthTweeterName, healthTweeter);
+            Node[] registeredNodes = Arrays.copyOf(nodes, nodes.length + 1);
+            registeredNodes[nodes.length] = node;
+            this.nodes = registeredNodes;
+        }
+        RefreshScheduler currentRefreshScheduler = refreshScheduler;
+        if (currentRefreshScheduler != null) {
+            currentRefreshScheduler.schedule(() -> refresh(node), 0);
+        }
+        return this;
+    }
+
+    /**
+     * @return the indexes of the prerequisites of such {@link HealthTweeter}
+     * @throws IllegalArgumentException if any prerequisite is not registered yet
+     */
+    private int[] requirePrerequisites(HealthTweeter healthTweeter) {
+
+        List<String> prerequisites = healthTweeter.getPrerequisites();
+        List<String> registeredNames = new ArrayList<>(healthTweets.keySet());
+        int[] prerequisiteIndexes = new int[prerequisites.size()];
+        for (int k = 0; k < prerequisiteIndexes.length; k++) {
+            prerequisiteIndexes[k] = registeredNames.indexOf(prerequisites.get(k));
+            if (prerequisiteIndexes[k] < 0) {
+                throw new IllegalArgumentException(
+                        String.format("%s with name %s depends on %s, which must be registered first",
+                                HealthTweet.class,
+                                healthTweeter.getName(),
+                                prerequisites.get(k)));
+            }
+        }
+        return prerequisiteIndexes;
+    }
+
+    private void requireUnique(String healthTweeterName) {
+
         if (healthTweets.containsKey(healthTweeterName)) {
             throw new IllegalArgumentException(
                     String.format("%s with name %s already registered",
                             HealthTweet.class,
                             healthTweeterName));
         }
-        this.healthTweets.put(healthTweeterName, healthTweeter);
+    }
+
+    /**
+     * Adds a {@link HealthTweetListener}, notified whenever the result of any registered {@link HealthMonitor} changes,
+     * so that changes can be pushed to clients rather than polled
+     *
+     * @param listener mandatory
+     * @return an instance of this object for method chaining
+     */
+    public HealthAggregator addListener(HealthTweetListener listener) {
+
+        listeners.add(Require.notNull(listener, "listener"));
+        return this;
+    }
+
+    public void removeListener(HealthTweetListener listener) {
+
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the version of the latest results, which increases whenever any result changes. Versions start from the
+     * time of creation of this aggregator, so that they keep increasing across restarts of the application
+     */
+    public long getVersion() {
+
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Reads the latest results without invoking any monitor
+     *
+     * @return the latest results of all monitors checked at least once, together with their version
+     */
+    public HealthSnapshot getSnapshot() {
+
+        return snapshot;
+    }
+
+    private static HealthSnapshot initialSnapshot(Clock clock) {
+
+        long initialVersion = clock != null ? TimeUnit.MILLISECONDS.toMicros(clock.millis()) : 0L;
+        return new HealthSnapshot(initialVersion, Collections.emptyList(), new long[0]);
+    }
+
+    private void onChange(HealthTweeter changedTweeter, HealthTweet healthTweet) {
+
+        synchronized (snapshotLock) {
+            long version = snapshot.getVersion() + 1;
+            changedAtVersions.put(changedTweeter.getName(), version);
+
+            Node[] registeredNodes = nodes;
+            List<HealthTweet> tweets = new ArrayList<>(registeredNodes.length);
+            long[] tweetVersions = new long[registeredNodes.length];
+            for (Node node : registeredNodes) {
+                HealthTweeter healthTweeter = node.healthTweeter;
+                HealthTweet lastTweet = healthTweeter.getLastHealthTweet();
+                if (lastTweet != null) {
+                    tweetVersions[tweets.size()] = changedAtVersions.getOrDefault(healthTweeter.getName(), version);
+                    tweets.add(lastTweet);
+                }
+            }
+            snapshot = new HealthSnapshot(version, tweets, Arrays.copyOf(tweetVersions, tweets.size()));
+        }
+        notifyListeners(healthTweet);
+    }
+
+    private void notifyListeners(HealthTweet healthTweet) {
+
+        for (HealthTweetListener listener : listeners) {
+            try {
+                listener.onChange(healthTweet);
+            }
+            catch (RuntimeException e) {
+                // one failing listener must not prevent the others from being notified
+            }
+        }
+    }
+
+    /**
+     * Gives access to the registered {@link HealthTweeter}s, for example to read their cached state and statistics
+     * without invoking any monitor.
+     *
+     * @return an unmodifiable list of the {@link HealthTweeter}s registered so far, in registration order
+     */
+    public Collection<HealthTweeter> getHealthTweeters() {
+
+        Node[] registeredNodes = nodes;
+        List<HealthTweeter> healthTweeters = new ArrayList<>(registeredNodes.length);
+        for (Node node : registeredNodes) {
+            healthTweeters.add(node.healthTweeter);
+        }
+        return Collections.unmodifiableList(healthTweeters);
+    }
+
+    /**
+     * @return the {@link LatencyHistogram} of each registered {@link HealthMonitor}, by name and in registration order
+     */
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+
+        Map<String, LatencyHistogram> latencyHistograms = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            latencyHistograms.put(node.healthTweeter.getName(), node.healthTweeter.getLatencyHistogram());
+        }
+        return latencyHistograms;
+    }
+
+    /**
+     * @return the {@link StatusHistory} of each registered {@link HealthMonitor}, by name and in registration order
+     */
+    public Map<String, StatusHistory> getStatusHistories() {
+
+        Map<String, StatusHistory> statusHistories = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            statusHistories.put(node.healthTweeter.getName(), node.healthTweeter.getStatusHistory());
+        }
+        return statusHistories;
+    }
+
+    /**
+     * Tells whether the results of the monitors of such importance are available, for example to only accept traffic
+     * once they are cached. Never invokes any monitor.
+     *
+     * @param importance mandatory
+     * @return true if every monitor of such importance was invoked at least once, including ones throwing an exception,
+     * or is not invoked as one of its prerequisites failed
+     */
+    public boolean hasReported(DependencyImportance importance) {
+
+        Require.notNull(importance, "importance");
+
+        for (Node node : nodes) {
+            HealthTweeter healthTweeter = node.healthTweeter;
+            if (healthTweeter.getDependency().getImportance() == importance
+                    && healthTweeter.getLastHealthTweet() == null
+                    && healthTweeter.getFailureCount() == 0
+                    && !hasFailedPrerequisite(node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Switches to refresh-ahead mode: every {@link HealthMonitor}, registered so far or in the future, is invoked
+     * straight away in the background and then again shortly before its time to live expires.
+     * From then on {@link #collect()} only reads the latest results and never invokes a monitor, so a canary request
+     * never waits for a health check. Monitors that never cache their result are refreshed on every tick of the
+     * scheduler.
+     *
+     * @param refreshScheduler mandatory, its lifecycle is up to the caller
+     * @return an instance of this object for method chaining
+     * @throws IllegalStateException if a {@link RefreshScheduler} was already provided
+     */
+    public HealthAggregator refreshInBackground(RefreshScheduler refreshScheduler) {
+
+        Require.notNull(refreshScheduler, "refreshScheduler");
+
+        if (this.refreshScheduler != null) {
+            throw new IllegalStateException(
+                    String.format("%s already refreshing in background", HealthAggregator.class.getSimpleName()));
+        }
+        this.refreshScheduler = refreshScheduler;
+        for (Node node : nodes) {
+            refreshScheduler.schedule(() -> refresh(node), 0);
+        }
+        return this;
+    }
+
+    /**
+     * Shares the results of every {@link HealthMonitor}, registered so far or in the future, with the other processes
+     * on the same host using the same {@link SharedStatusTable}, so that each dependency is checked by one of them at a
+     * time. Monitors that never cache their result are not shared.
+     *
+     * @param sharedStatusTable mandatory, its lifecycle is up to the caller
+     * @return an instance of this object for method chaining
+     * @throws IllegalStateException    if a {@link SharedStatusTable} was already provided, or it is full
+     * @throws IllegalArgumentException if the name of any monitor is too long to be shared
+     */
+    public HealthAggregator shareResults(SharedStatusTable sharedStatusTable) {
+
+        Require.notNull(sharedStatusTable, "sharedStatusTable");
+
+        if (this.sharedStatusTable != null) {
+            throw new IllegalStateException(
+                    String.format("%s already sharing results", HealthAggregator.class.getSimpleName()));
+        }
+        this.sharedStatusTable = sharedStatusTable;
+        for (Node node : nodes) {
+            node.healthTweeter.shareResults(sharedStatusTable);
+        }
         return this;
     }
 
     /**
      * Invoke all {@link HealthMonitor}s and aggregate the data into a list.
      * The list is returned in the same order in which the {@link HealthMonitor}s were registered.
+     * <p>
+     * When refreshing in background, the latest results are returned without invoking any monitor, and monitors
+     * that did not complete their first invocation yet are reported with {@link DependencyStatus#UNKNOWN} status.
+     * <p>
+     * Monitors with a failed prerequisite are reported with {@link DependencyStatus#UNKNOWN} status, without being
+     * invoked.
      *
-     * @return a list of all {@link HealthTweet}s produced, potentially empty if no {@link HealthMonitor}s registered
+     * @return an unmodifiable list of all {@link HealthTweet}s produced, potentially empty if no {@link HealthMonitor}s
+     * registered
      */
     public List<HealthTweet> collect() {
 
-        return healthTweets.values()
-                .stream()
-                .map(healthTweeter -> {
-                    try {
-                        return healthTweeter.tweet();
-                    }
-                    catch (RuntimeException e) {
-                        return new HealthTweet(
-                                healthTweeter.getDependency(),
-                                HealthResult.of(DependencyStatus.UNKNOWN, UNCAUGTHT_EXCEPTION_ERRMSG));
+        Node[] collectedNodes = nodes;
+        List<HealthTweet> last = lastCollected;
+        HealthTweet[] collected = null;
+        boolean refreshing = refreshScheduler != null;
+
+        for (int i = 0; i < collectedNodes.length; i++) {
+            Node node = collectedNodes[i];
+            HealthTweet healthTweet = skippedTweet(collectedNodes, node, collected, last);
+            if (healthTweet == null && refreshing) {
+                healthTweet = lastHealthTweet(node.healthTweeter);
+            }
+            else if (healthTweet == null && executor == null) {
+                healthTweet = tweet(node.healthTweeter);
+            }
+            else if (healthTweet == null) {
+                // only go parallel when some monitor has to be invoked, as that takes a few futures per monitor
+                healthTweet = node.healthTweeter.getLastHealthTweetIfNotExpired();
+                if (healthTweet == null) {
+                    return publish(collectAsync().join(), last);
+                }
+            }
+            collected = collect(collected, last, i, collectedNodes.length, healthTweet);
+        }
+        return publish(collected, last);
+    }
+
+    /**
+     * Same as {@link #collect()}, for the dependencies selected by such filter only. The prerequisites of the selected
+     * dependencies are collected too, as their results decide whether the selected ones are invoked, but are not
+     * returned unless selected themselves. Any other monitor is neither invoked nor read.
+     *
+     * @param filter mandatory
+     * @return an unmodifiable list of the {@link HealthTweet}s of the selected dependencies, in registration order
+     */
+    public List<HealthTweet> collect(DependencyFilter filter) {
+
+        Require.notNull(filter, "filter");
+
+        if (filter.isAll()) {
+            return collect();
+        }
+        Node[] collectedNodes = nodes;
+        BitSet selected = indexOf(collectedNodes).select(filter);
+        BitSet included = withPrerequisites(collectedNodes, selected);
+        HealthTweet[] collected = new HealthTweet[collectedNodes.length];
+        boolean refreshing = refreshScheduler != null;
+
+        for (int i = included.nextSetBit(0); i >= 0; i = included.nextSetBit(i + 1)) {
+            Node node = collectedNodes[i];
+            HealthTweet healthTweet = skippedTweet(collectedNodes, node, collected, null);
+            if (healthTweet == null && refreshing) {
+                healthTweet = lastHealthTweet(node.healthTweeter);
+            }
+            else if (healthTweet == null && executor == null) {
+                healthTweet = tweet(node.healthTweeter);
+            }
+            else if (healthTweet == null) {
+                healthTweet = node.healthTweeter.getLastHealthTweetIfNotExpired();
+                if (healthTweet == null) {
+                    return collectAsync(collectedNodes, selected, included).join();
+                }
+            }
+            collected[i] = healthTweet;
+        }
+        return selectedTweets(collected, selected);
+    }
+
+    private Index indexOf(Node[] collectedNodes) {
+
+        Index currentIndex = index;
+        if (currentIndex == null || currentIndex.nodes != collectedNodes) {
+            currentIndex = new Index(collectedNodes);
+            index = currentIndex;
+        }
+        return currentIndex;
+    }
+
+    /**
+     * @return the selected positions together with the ones of their prerequisites, direct or not
+     */
+    private static BitSet withPrerequisites(Node[] collectedNodes, BitSet selected) {
+
+        BitSet included = (BitSet) selected.clone();
+        // prerequisites are registered first, so going backwards meets each one after all its dependents
+        for (int i = included.previousSetBit(collectedNodes.length - 1); i >= 0; i = included.previousSetBit(i - 1)) {
+            for (int prerequisite : collectedNodes[i].prerequisites) {
+                included.set(prerequisite);
+            }
+        }
+        return included;
+    }
+
+    private static List<HealthTweet> selectedTweets(HealthTweet[] collected, BitSet selected) {
+
+        List<HealthTweet> selectedTweets = new ArrayList<>(selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            selectedTweets.add(collected[i]);
+        }
+        return Collections.unmodifiableList(selectedTweets);
+    }
+
+    /**
+     * @param collected the tweets collected so far, or null if the same as the last collected
+     * @return the tweet reporting the first failed prerequisite of such node, or null if none failed
+     */
+    private static HealthTweet skippedTweet(Node[] collectedNodes,
+                                            Node node,
+                                            HealthTweet[] collected,
+                                            List<HealthTweet> last) {
+
+        for (int k = 0; k < node.prerequisites.length; k++) {
+            int prerequisite = node.prerequisites[k];
+            HealthTweet prerequisiteTweet = collected != null ? collected[prerequisite] : last.get(prerequisite);
+            if (collectedNodes[prerequisite].isFailed(prerequisiteTweet)) {
+                return node.skippedTweets[k];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the i-th tweet, allocating the array of collected tweets only once it differs from the last collected
+     *
+     * @return the array of collected tweets, or null if the same as the last collected so far
+     */
+    private static HealthTweet[] collect(HealthTweet[] collected,
+                                         List<HealthTweet> last,
+                                         int i,
+                                         int size,
+                                         HealthTweet healthTweet) {
+
+        if (collected == null) {
+            if (last.size() == size && last.get(i) == healthTweet) {
+                return null;
+            }
+            collected = new HealthTweet[size];
+            for (int j = 0; j < i; j++) {
+                collected[j] = last.get(j);
+            }
+        }
+        collected[i] = healthTweet;
+        return collected;
+    }
+
+    private List<HealthTweet> publish(HealthTweet[] collected, List<HealthTweet> last) {
+
+        return collected == null ? last : publish(Arrays.asList(collected), last);
+    }
+
+    private List<HealthTweet> publish(List<HealthTweet> collected, List<HealthTweet> last) {
+
+        List<HealthTweet> result = Collections.unmodifiableList(collected);
+        if (last == lastCollected) {
+            lastCollected = result;
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #collect()}, without ever blocking the calling thread: each expired {@link HealthMonitor} is
+     * invoked through {@link HealthTweeter#tweetAsync()}, so an {@link AsyncHealthMonitor} does not hold any thread
+     * while its check is in progress, and any other monitor is invoked on the executor, if provided, or else on the
+     * bounded pool of daemon threads shared by tweeters created without one (see {@link CheckExecutors}).
+     *
+     * @return a future list of all {@link HealthTweet}s, completed once all expired monitors complete
+     */
+    public CompletableFuture<List<HealthTweet>> collectAsync() {
+
+        if (refreshScheduler != null) {
+            return CompletableFuture.completedFuture(collect());
+        }
+        Node[] collectedNodes = nodes;
+        List<CompletableFuture<HealthTweet>> futureTweets = new ArrayList<>(collectedNodes.length);
+        for (Node node : collectedNodes) {
+            futureTweets.add(node.prerequisites.length == 0
+                    ? tweetAsync(node.healthTweeter)
+                    : tweetAfterPrerequisitesAsync(collectedNodes, node, futureTweets));
+        }
+        return CompletableFuture.allOf(futureTweets.toArray(new CompletableFuture[futureTweets.size()]))
+                .thenApply(ignored -> futureTweets.stream()
+                        .map(CompletableFuture::join)
+                        .collect(toList()));
+    }
+
+    /**
+     * Same as {@link #collectAsync()}, for the dependencies selected by such filter only, and the prerequisites
+     * needed by them, as in {@link #collect(DependencyFilter)}.
+     *
+     * @param filter mandatory
+     * @return a future list of the {@link HealthTweet}s of the selected dependencies, in registration order
+     */
+    public CompletableFuture<List<HealthTweet>> collectAsync(DependencyFilter filter) {
+
+        Require.notNull(filter, "filter");
+
+        if (filter.isAll()) {
+            return collectAsync();
+        }
+        if (refreshScheduler != null) {
+            return CompletableFuture.completedFuture(collect(filter));
+        }
+        Node[] collectedNodes = nodes;
+        BitSet selected = indexOf(collectedNodes).select(filter);
+        return collectAsync(collectedNodes, selected, withPrerequisites(collectedNodes, selected));
+    }
+
+    /**
+     * @param selected the positions of the nodes whose tweets are returned
+     * @param included the positions of the nodes to collect, including the prerequisites of the selected ones
+     */
+    private CompletableFuture<List<HealthTweet>> collectAsync(Node[] collectedNodes, BitSet selected, BitSet included) {
+
+        // the nodes not included are left null, as they are never the prerequisite of an included one
+        List<CompletableFuture<HealthTweet>> futureTweets = new ArrayList<>(collectedNodes.length);
+        for (int i = 0; i < collectedNodes.length; i++) {
+            Node node = collectedNodes[i];
+            if (!included.get(i)) {
+                futureTweets.add(null);
+            }
+            else {
+                futureTweets.add(node.prerequisites.length == 0
+                        ? tweetAsync(node.healthTweeter)
+                        : tweetAfterPrerequisitesAsync(collectedNodes, node, futureTweets));
+            }
+        }
+        CompletableFuture<?>[] includedTweets = new CompletableFuture[included.cardinality()];
+        for (int i = included.nextSetBit(0), k = 0; i >= 0; i = included.nextSetBit(i + 1), k++) {
+            includedTweets[k] = futureTweets.get(i);
+        }
+        return CompletableFuture.allOf(includedTweets).thenApply(ignored -> {
+            HealthTweet[] collected = new HealthTweet[collectedNodes.length];
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                collected[i] = futureTweets.get(i).join();
+            }
+            return selectedTweets(collected, selected);
+        });
+    }
+
+    /**
+     * @param futureTweets the future tweets of the nodes registered before such node, none of which ever completes
+     *                     exceptionally
+     */
+    private CompletableFuture<HealthTweet> tweetAfterPrerequisitesAsync(
+            Node[] collectedNodes,
+            Node node,
+            List<CompletableFuture<HealthTweet>> futureTweets) {
+
+        CompletableFuture<?>[] prerequisites = new CompletableFuture[node.prerequisites.length];
+        for (int k = 0; k < prerequisites.length; k++) {
+            prerequisites[k] = futureTweets.get(node.prerequisites[k]);
+        }
+        return CompletableFuture.allOf(prerequisites).thenCompose(ignored -> {
+            for (int k = 0; k < prerequisites.length; k++) {
+                if (collectedNodes[node.prerequisites[k]].isFailed((HealthTweet) prerequisites[k].join())) {
+                    return CompletableFuture.completedFuture(node.skippedTweets[k]);
+                }
+            }
+            return tweetAsync(node.healthTweeter);
+        });
+    }
+
+    private CompletableFuture<HealthTweet> tweetAsync(HealthTweeter healthTweeter) {
+
+        try {
+            return healthTweeter.tweetAsync()
+                    .exceptionally(e -> unknownTweet(healthTweeter, UNCAUGTHT_EXCEPTION_ERRMSG));
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(unknownTweet(healthTweeter, UNCAUGTHT_EXCEPTION_ERRMSG));
+        }
+    }
+
+    private static HealthTweet lastHealthTweet(HealthTweeter healthTweeter) {
+
+        HealthTweet lastHealthTweet = healthTweeter.getLastHealthTweet();
+        return lastHealthTweet != null ? lastHealthTweet : unknownTweet(healthTweeter, NOT_COMPUTED_YET_ERRMSG);
+    }
+
+    private HealthTweet tweet(HealthTweeter healthTweeter) {
+
+        try {
+            return healthTweeter.tweet();
+        }
+        catch (RuntimeException e) {
+            return unknownTweet(healthTweeter, UNCAUGTHT_EXCEPTION_ERRMSG);
+        }
+    }
+
+    private void refresh(Node node) {
+
+        HealthTweeter healthTweeter = node.healthTweeter;
+        try {
+            if (!hasFailedPrerequisite(node)) {
+                healthTweeter.refresh();
+            }
+        }
+        catch (RuntimeException e) {
+            healthTweeter.setLastHealthTweet(unknownTweet(healthTweeter, UNCAUGTHT_EXCEPTION_ERRMSG));
+        }
+        finally {
+            long timeToLive = healthTweeter.getTimeToLiveInMillis();
+            refreshScheduler.schedule(() -> refresh(node), timeToLive - timeToLive / REFRESH_AHEAD_DIVISOR);
+        }
+    }
+
+    /**
+     * @return true if any prerequisite of such node, direct or not, last reported a failure
+     */
+    private boolean hasFailedPrerequisite(Node node) {
+
+        Node[] registeredNodes = nodes;
+        for (int prerequisite : node.prerequisites) {
+            HealthTweet lastHealthTweet = registeredNodes[prerequisite].healthTweeter.getLastHealthTweet();
+            if (lastHealthTweet != null && registeredNodes[prerequisite].isFailed(lastHealthTweet)
+                    || hasFailedPrerequisite(registeredNodes[prerequisite])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static HealthTweet unknownTweet(HealthTweeter healthTweeter, String statusText) {
+
+        return new HealthTweet(
+                healthTweeter.getDependency(),
+                HealthResult.of(DependencyStatus.UNKNOWN, statusText));
+    }
+
+    /**
+     * The positions of the registered nodes by importance, type and name, so that selecting a few dependencies out of
+     * many does not go through all of them
+     */
+    private static final class Index {
+
+        private final Node[] nodes;
+
+        private final EnumMap<DependencyImportance, BitSet> byImportance = new EnumMap<>(DependencyImportance.class);
+
+        private final EnumMap<DependencyType, BitSet> byType = new EnumMap<>(DependencyType.class);
+
+        private final Map<String, Integer> byName = new HashMap<>();
+
+        private Index(Node[] nodes) {
+
+            this.nodes = nodes;
+            for (int i = 0; i < nodes.length; i++) {
+                Dependency dependency = nodes[i].healthTweeter.getDependency();
+                byImportance.computeIfAbsent(dependency.getImportance(), key -> new BitSet(nodes.length)).set(i);
+                byType.computeIfAbsent(dependency.getType(), key -> new BitSet(nodes.length)).set(i);
+                byName.put(dependency.getName(), i);
+            }
+        }
+
+        /**
+         * @return the positions of the nodes selected by such filter
+         */
+        private BitSet select(DependencyFilter filter) {
+
+            BitSet selected = new BitSet(nodes.length);
+            selected.set(0, nodes.length);
+            if (!filter.getImportances().isEmpty()) {
+                selected.and(union(byImportance, filter.getImportances()));
+            }
+            if (!filter.getTypes().isEmpty()) {
+                selected.and(union(byType, filter.getTypes()));
+            }
+            if (!filter.getNames().isEmpty()) {
+                BitSet named = new BitSet(nodes.length);
+                for (String name : filter.getNames()) {
+                    Integer position = byName.get(name);
+                    if (position != null) {
+                        named.set(position);
                     }
-                })
-                .collect(toList());
+                }
+                selected.and(named);
+            }
+            return selected;
+        }
+
+        private static <K> BitSet union(Map<K, BitSet> positionsByKey, Collection<K> keys) {
+
+            BitSet union = new BitSet();
+            for (K key : keys) {
+                BitSet positions = positionsByKey.get(key);
+                if (positions != null) {
+                    union.or(positions);
+                }
+            }
+            return union;
+        }
     }
 
+    /**
+     * A registered {@link HealthTweeter} with the indexes of its prerequisites, and the tweets reporting it as skipped
+     * because of each of them, created once at registration
+     */
+    private static final class Node {
+
+        private final HealthTweeter healthTweeter;
+
+        private final int[] prerequisites;
+
+        private final HealthTweet[] skippedTweets;
+
+        private Node(HealthTweeter healthTweeter, int[] prerequisites) {
+
+            this.healthTweeter = healthTweeter;
+            this.prerequisites = prerequisites;
+            this.skippedTweets = new HealthTweet[prerequisites.length];
+            for (int k = 0; k < prerequisites.length; k++) {
+                skippedTweets[k] = new HealthTweet(healthTweeter.getDependency(), HealthResult.of(
+                        DependencyStatus.UNKNOWN,
+                        String.format(PREREQUISITE_FAILED_ERRMSG, healthTweeter.getPrerequisites().get(k))));
+            }
+        }
+
+        /**
+         * Skipped tweets are told apart by identity, as a monitor might well report the same status and text
+         *
+         * @return true if the dependents of this node should not be invoked, as it reported such tweet
+         */
+        private boolean isFailed(HealthTweet healthTweet) {
+
+            if (healthTweet.getResult().getStatus() == DependencyStatus.CRITICAL) {
+                return true;
+            }
+            for (HealthTweet skippedTweet : skippedTweets) {
+                if (healthTweet == skippedTweet) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
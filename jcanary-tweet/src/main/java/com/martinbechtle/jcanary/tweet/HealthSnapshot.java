@@ -0,0 +1,63 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.HealthTweet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the latest {@link HealthTweet} of every monitor of a {@link HealthAggregator}, as of a version.
+ * <p>
+ * The version increases whenever the result of any monitor changes, and each tweet remembers the version at which
+ * its result last changed, so that clients already holding an older snapshot can be sent only what changed since.
+ *
+ * @author Martin Bechtle
+ */
+public final class HealthSnapshot {
+
+    private final long version;
+
+    private final List<HealthTweet> tweets;
+
+    private final long[] changedAtVersions;
+
+    HealthSnapshot(long version, List<HealthTweet> tweets, long[] changedAtVersions) {
+
+        this.version = version;
+        this.tweets = Collections.unmodifiableList(tweets);
+        this.changedAtVersions = changedAtVersions;
+    }
+
+    public long getVersion() {
+
+        return version;
+    }
+
+    /**
+     * @return the latest tweet of every monitor checked at least once, in registration order
+     */
+    public List<HealthTweet> getTweets() {
+
+        return tweets;
+    }
+
+    /**
+     * @param sinceVersion the version of a snapshot previously obtained from the same {@link HealthAggregator}
+     * @return the tweets whose result changed after such version, in registration order, or all tweets if the version
+     * is newer than this snapshot, and therefore was not obtained from the same {@link HealthAggregator}
+     */
+    public List<HealthTweet> getTweetsChangedSince(long sinceVersion) {
+
+        if (sinceVersion > version) {
+            return tweets;
+        }
+        List<HealthTweet> changedTweets = new ArrayList<>();
+        for (int i = 0; i < changedAtVersions.length; i++) {
+            if (changedAtVersions[i] > sinceVersion) {
+                changedTweets.add(tweets.get(i));
+            }
+        }
+        return changedTweets;
+    }
+}
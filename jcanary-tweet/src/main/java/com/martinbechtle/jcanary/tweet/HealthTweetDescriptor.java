@@ -28,4 +28,68 @@ public @interface HealthTweetDescriptor {
      * Use a negative value to never cache. Default is one minute.
      */
     int secondsToLive() default 60;
+
+    /**
+     * Time to live in seconds while the monitor reports any status other than
+     * {@link com.martinbechtle.jcanary.api.DependencyStatus#HEALTHY}, so that a failing dependency is checked more often
+     * than a healthy one. Only relevant if positive and lower than secondsToLive, which is used otherwise.
+     * Default is zero.
+     */
+    int minSecondsToLive() default 0;
+
+    /**
+     * Time to live in seconds to stretch to while the monitor keeps reporting
+     * {@link com.martinbechtle.jcanary.api.DependencyStatus#HEALTHY}: starting from secondsToLive, it doubles at every
+     * healthy result up to this value. Only relevant if higher than secondsToLive. Default is zero, for a fixed time to
+     * live.
+     */
+    int maxSecondsToLive() default 0;
+
+    /**
+     * Random jitter added to each time to live, up to such percentage of it, so that many instances of a service do
+     * not check a shared dependency at the same time. Default is zero, for no jitter.
+     */
+    int jitterPercent() default 0;
+
+    /**
+     * Grace period in seconds, after secondsToLive, during which the expired result is still returned straight away
+     * while the monitor is invoked again asynchronously. Useful when a slightly stale result is preferable to waiting,
+     * for example for {@link DependencyImportance#MANAGEABLE} dependencies.
+     * Default is zero, meaning that callers always wait for an expired result to be re-computed.
+     */
+    int secondsStaleWhileRevalidate() default 0;
+
+    /**
+     * Maximum time in milliseconds to wait for the monitor. If exceeded, the monitor is interrupted and the result is
+     * {@link com.martinbechtle.jcanary.api.DependencyStatus#CRITICAL}.
+     * Use zero or a negative value to wait indefinitely, which is the default.
+     */
+    long timeoutMillis() default 0;
+
+    /**
+     * Number of consecutive timeouts after which the monitor is not invoked any more for circuitBreakerSecondsOpen,
+     * the result being {@link com.martinbechtle.jcanary.api.DependencyStatus#CRITICAL} in the meanwhile.
+     * Only relevant if timeoutMillis is set. Use zero or a negative value to never stop invoking the monitor.
+     * Default is three.
+     */
+    int circuitBreakerTimeouts() default 3;
+
+    /**
+     * How long, in seconds, the monitor is not invoked after circuitBreakerTimeouts consecutive timeouts.
+     * Default is one minute.
+     */
+    int circuitBreakerSecondsOpen() default 60;
+
+    /**
+     * Names of the monitors this one depends on, for example the VPN or DNS monitor in front of a remote api.
+     * While any of them is {@link com.martinbechtle.jcanary.api.DependencyStatus#CRITICAL}, this monitor is not
+     * invoked, and is reported as {@link com.martinbechtle.jcanary.api.DependencyStatus#UNKNOWN} with the reason.
+     * Such monitors must be registered before this one. Default is none.
+     */
+    String[] dependsOn() default {};
+
+    /**
+     * Number of check outcomes kept in the {@link StatusHistory} of this monitor, zero to keep none. Default is 32.
+     */
+    int historySize() default 32;
 }
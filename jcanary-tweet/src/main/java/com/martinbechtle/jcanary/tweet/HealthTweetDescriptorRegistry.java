@@ -0,0 +1,20 @@
+package com.martinbechtle.jcanary.tweet;
+
+import java.util.Map;
+
+/**
+ * Descriptors of the monitors of a package, generated at build time by the jcanary-processor annotation processor
+ * and found through {@link java.util.ServiceLoader}, so that registering a monitor needs no reflection.
+ * <p>
+ * Not meant to be implemented by hand: monitors missing from every registry still have their
+ * {@link HealthTweetDescriptor} read by reflection.
+ *
+ * @author Martin Bechtle
+ */
+public interface HealthTweetDescriptorRegistry {
+
+    /**
+     * @return the {@link HealthTweetDescriptor} of each monitor class
+     */
+    Map<Class<?>, HealthTweetDescriptor> getDescriptors();
+}
@@ -0,0 +1,359 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import static com.martinbechtle.jrequire.Require.notNull;
+
+/**
+ * Creates {@link HealthTweetDescriptor}s without reflection, for the registries generated by the jcanary-processor
+ * annotation processor, and looks descriptors up in such registries.
+ * <p>
+ * Descriptors built here are equal to, and have the same hash code as, the annotations with the same values, as
+ * required by {@link Annotation}.
+ *
+ * @author Martin Bechtle
+ */
+public final class HealthTweetDescriptors {
+
+    private HealthTweetDescriptors() {
+
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * @return the descriptor of such monitor class from the generated registries, or null if none has it
+     */
+    static HealthTweetDescriptor find(Class<?> monitorClass) {
+
+        return Registries.DESCRIPTORS.get(monitorClass);
+    }
+
+    /**
+     * Loaded on first use, once for all monitors
+     */
+    private static final class Registries {
+
+        private static final Map<Class<?>, HealthTweetDescriptor> DESCRIPTORS = load();
+
+        private static Map<Class<?>, HealthTweetDescriptor> load() {
+
+            Map<Class<?>, HealthTweetDescriptor> descriptors = new HashMap<>();
+            for (HealthTweetDescriptorRegistry registry : ServiceLoader.load(HealthTweetDescriptorRegistry.class)) {
+                descriptors.putAll(registry.getDescriptors());
+            }
+            return descriptors;
+        }
+    }
+
+    /**
+     * Has no defaults, so that they are only ever declared by {@link HealthTweetDescriptor}: generated registries set
+     * every value
+     */
+    public static final class Builder {
+
+        private String name;
+        private DependencyType type;
+        private DependencyImportance importance;
+        private Integer secondsToLive;
+        private Integer minSecondsToLive;
+        private Integer maxSecondsToLive;
+        private Integer jitterPercent;
+        private Integer secondsStaleWhileRevalidate;
+        private Long timeoutMillis;
+        private Integer circuitBreakerTimeouts;
+        private Integer circuitBreakerSecondsOpen;
+        private String[] dependsOn;
+        private Integer historySize;
+
+        private Builder() {
+
+        }
+
+        public Builder name(String name) {
+
+            this.name = name;
+            return this;
+        }
+
+        public Builder type(DependencyType type) {
+
+            this.type = type;
+            return this;
+        }
+
+        public Builder importance(DependencyImportance importance) {
+
+            this.importance = importance;
+            return this;
+        }
+
+        public Builder secondsToLive(int secondsToLive) {
+
+            this.secondsToLive = secondsToLive;
+            return this;
+        }
+
+        public Builder minSecondsToLive(int minSecondsToLive) {
+
+            this.minSecondsToLive = minSecondsToLive;
+            return this;
+        }
+
+        public Builder maxSecondsToLive(int maxSecondsToLive) {
+
+            this.maxSecondsToLive = maxSecondsToLive;
+            return this;
+        }
+
+        public Builder jitterPercent(int jitterPercent) {
+
+            this.jitterPercent = jitterPercent;
+            return this;
+        }
+
+        public Builder secondsStaleWhileRevalidate(int secondsStaleWhileRevalidate) {
+
+            this.secondsStaleWhileRevalidate = secondsStaleWhileRevalidate;
+            return this;
+        }
+
+        public Builder timeoutMillis(long timeoutMillis) {
+
+            this.timeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        public Builder circuitBreakerTimeouts(int circuitBreakerTimeouts) {
+
+            this.circuitBreakerTimeouts = circuitBreakerTimeouts;
+            return this;
+        }
+
+        public Builder circuitBreakerSecondsOpen(int circuitBreakerSecondsOpen) {
+
+            this.circuitBreakerSecondsOpen = circuitBreakerSecondsOpen;
+            return this;
+        }
+
+        public Builder dependsOn(String... dependsOn) {
+
+            this.dependsOn = dependsOn.clone();
+            return this;
+        }
+
+        public Builder historySize(int historySize) {
+
+            this.historySize = historySize;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if any value was not set, or set to null
+         */
+        public HealthTweetDescriptor build() {
+
+            return new Descriptor(this);
+        }
+    }
+
+    private static final class Descriptor implements HealthTweetDescriptor {
+
+        private final String name;
+        private final DependencyType type;
+        private final DependencyImportance importance;
+        private final int secondsToLive;
+        private final int minSecondsToLive;
+        private final int maxSecondsToLive;
+        private final int jitterPercent;
+        private final int secondsStaleWhileRevalidate;
+        private final long timeoutMillis;
+        private final int circuitBreakerTimeouts;
+        private final int circuitBreakerSecondsOpen;
+        private final String[] dependsOn;
+        private final int historySize;
+
+        private Descriptor(Builder builder) {
+
+            this.name = notNull(builder.name, "name");
+            this.type = notNull(builder.type, "type");
+            this.importance = notNull(builder.importance, "importance");
+            this.secondsToLive = notNull(builder.secondsToLive, "secondsToLive");
+            this.minSecondsToLive = notNull(builder.minSecondsToLive, "minSecondsToLive");
+            this.maxSecondsToLive = notNull(builder.maxSecondsToLive, "maxSecondsToLive");
+            this.jitterPercent = notNull(builder.jitterPercent, "jitterPercent");
+            this.secondsStaleWhileRevalidate = notNull(builder.secondsStaleWhileRevalidate,
+                    "secondsStaleWhileRevalidate");
+            this.timeoutMillis = notNull(builder.timeoutMillis, "timeoutMillis");
+            this.circuitBreakerTimeouts = notNull(builder.circuitBreakerTimeouts, "circuitBreakerTimeouts");
+            this.circuitBreakerSecondsOpen = notNull(builder.circuitBreakerSecondsOpen, "circuitBreakerSecondsOpen");
+            this.dependsOn = notNull(builder.dependsOn, "dependsOn").clone();
+            this.historySize = notNull(builder.historySize, "historySize");
+        }
+
+        @Override
+        public String name() {
+
+            return name;
+        }
+
+        @Override
+        public DependencyType type() {
+
+            return type;
+        }
+
+        @Override
+        public DependencyImportance importance() {
+
+            return importance;
+        }
+
+        @Override
+        public int secondsToLive() {
+
+            return secondsToLive;
+        }
+
+        @Override
+        public int minSecondsToLive() {
+
+            return minSecondsToLive;
+        }
+
+        @Override
+        public int maxSecondsToLive() {
+
+            return maxSecondsToLive;
+        }
+
+        @Override
+        public int jitterPercent() {
+
+            return jitterPercent;
+        }
+
+        @Override
+        public int secondsStaleWhileRevalidate() {
+
+            return secondsStaleWhileRevalidate;
+        }
+
+        @Override
+        public long timeoutMillis() {
+
+            return timeoutMillis;
+        }
+
+        @Override
+        public int circuitBreakerTimeouts() {
+
+            return circuitBreakerTimeouts;
+        }
+
+        @Override
+        public int circuitBreakerSecondsOpen() {
+
+            return circuitBreakerSecondsOpen;
+        }
+
+        @Override
+        public String[] dependsOn() {
+
+            return dependsOn.clone();
+        }
+
+        @Override
+        public int historySize() {
+
+            return historySize;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+
+            return HealthTweetDescriptor.class;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HealthTweetDescriptor)) {
+                return false;
+            }
+            HealthTweetDescriptor that = (HealthTweetDescriptor) o;
+            return name.equals(that.name())
+                    && type == that.type()
+                    && importance == that.importance()
+                    && secondsToLive == that.secondsToLive()
+                    && minSecondsToLive == that.minSecondsToLive()
+                    && maxSecondsToLive == that.maxSecondsToLive()
+                    && jitterPercent == that.jitterPercent()
+                    && secondsStaleWhileRevalidate == that.secondsStaleWhileRevalidate()
+                    && timeoutMillis == that.timeoutMillis()
+                    && circuitBreakerTimeouts == that.circuitBreakerTimeouts()
+                    && circuitBreakerSecondsOpen == that.circuitBreakerSecondsOpen()
+                    && Arrays.equals(dependsOn, that.dependsOn())
+                    && historySize == that.historySize();
+        }
+
+        /**
+         * As specified by {@link Annotation#hashCode()}
+         */
+        @Override
+        public int hashCode() {
+
+            return memberHashCode("name", name.hashCode())
+                    + memberHashCode("type", type.hashCode())
+                    + memberHashCode("importance", importance.hashCode())
+                    + memberHashCode("secondsToLive", Integer.hashCode(secondsToLive))
+                    + memberHashCode("minSecondsToLive", Integer.hashCode(minSecondsToLive))
+                    + memberHashCode("maxSecondsToLive", Integer.hashCode(maxSecondsToLive))
+                    + memberHashCode("jitterPercent", Integer.hashCode(jitterPercent))
+                    + memberHashCode("secondsStaleWhileRevalidate", Integer.hashCode(secondsStaleWhileRevalidate))
+                    + memberHashCode("timeoutMillis", Long.hashCode(timeoutMillis))
+                    + memberHashCode("circuitBreakerTimeouts", Integer.hashCode(circuitBreakerTimeouts))
+                    + memberHashCode("circuitBreakerSecondsOpen", Integer.hashCode(circuitBreakerSecondsOpen))
+                    + memberHashCode("dependsOn", Arrays.hashCode(dependsOn))
+                    + memberHashCode("historySize", Integer.hashCode(historySize));
+        }
+
+        private static int memberHashCode(String memberName, int valueHashCode) {
+
+            return (127 * memberName.hashCode()) ^ valueHashCode;
+        }
+
+        @Override
+        public String toString() {
+
+            return "@" + HealthTweetDescriptor.class.getName() + "(" +
+                    "name=" + name +
+                    ", type=" + type +
+                    ", importance=" + importance +
+                    ", secondsToLive=" + secondsToLive +
+                    ", minSecondsToLive=" + minSecondsToLive +
+                    ", maxSecondsToLive=" + maxSecondsToLive +
+                    ", jitterPercent=" + jitterPercent +
+                    ", secondsStaleWhileRevalidate=" + secondsStaleWhileRevalidate +
+                    ", timeoutMillis=" + timeoutMillis +
+                    ", circuitBreakerTimeouts=" + circuitBreakerTimeouts +
+                    ", circuitBreakerSecondsOpen=" + circuitBreakerSecondsOpen +
+                    ", dependsOn=" + Arrays.toString(dependsOn) +
+                    ", historySize=" + historySize +
+                    ')';
+        }
+    }
+}
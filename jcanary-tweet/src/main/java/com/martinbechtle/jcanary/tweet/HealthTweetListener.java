@@ -0,0 +1,20 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+
+/**
+ * Notified when the {@link HealthResult} of a dependency changes, meaning its {@link DependencyStatus} or its
+ * status text, and when the first {@link HealthTweet} of a dependency is produced.
+ * <p>
+ * Invoked synchronously on the thread that checked the dependency, so implementations should return quickly and
+ * hand any slow work, such as I/O, over to another thread.
+ *
+ * @author Martin Bechtle
+ */
+@FunctionalInterface
+public interface HealthTweetListener {
+
+    void onChange(HealthTweet healthTweet);
+}
@@ -1,77 +1,596 @@
 package com.martinbechtle.jcanary.tweet;
 
+import com.martinbechtle.jcanary.api.AsyncHealthMonitor;
 import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyStatus;
 import com.martinbechtle.jcanary.api.HealthMonitor;
 import com.martinbechtle.jcanary.api.HealthResult;
 import com.martinbechtle.jcanary.api.HealthTweet;
 
+import java.nio.channels.FileLock;
 import java.time.Clock;
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.martinbechtle.jrequire.Require.notNull;
-import static java.util.Arrays.stream;
 
 /**
  * Component responsible for producing {@link HealthTweet}s
+ * <p>
+ * Safe to be used by many threads at once: when the cached {@link HealthTweet} expires, only one thread invokes the
+ * {@link HealthMonitor}, while the other threads are given the previous {@link HealthTweet}, or wait for the new one
+ * if the monitor was never invoked before.
+ * <p>
+ * The last {@link HealthTweet} and its expiry are published together as a single immutable snapshot, so that readers
+ * never see one without the other, and a cache hit costs a volatile read and a clock read, with no locking and no
+ * allocation.
+ * <p>
+ * If {@link HealthTweetDescriptor#secondsStaleWhileRevalidate()} is set, an expired {@link HealthTweet} is still
+ * returned during such grace period, while the monitor is invoked again asynchronously on the provided
+ * {@link Executor}.
+ * <p>
+ * If {@link HealthTweetDescriptor#timeoutMillis()} is set, the monitor is invoked on a separate pool shared by all
+ * tweeters (see {@link CheckExecutors}) and abandoned when it takes longer than that, in which case the dependency is
+ * reported as {@link DependencyStatus#CRITICAL}. Such pool is never the provided {@link Executor}, whose threads might
+ * all be held by tweets waiting for their own checks. If the pool rejects the check, it is not invoked at all and the
+ * dependency is reported as {@link DependencyStatus#UNKNOWN}, counting as a timeout. After
+ * {@link HealthTweetDescriptor#circuitBreakerTimeouts()} consecutive timeouts the monitor is not invoked at all for
+ * {@link HealthTweetDescriptor#circuitBreakerSecondsOpen()}.
+ * <p>
+ * If {@link HealthTweetDescriptor#maxSecondsToLive()}, {@link HealthTweetDescriptor#minSecondsToLive()} or
+ * {@link HealthTweetDescriptor#jitterPercent()} are set, the time to live adapts to the status reported, see
+ * {@link AdaptiveTimeToLive}.
+ * <p>
+ * If a {@link SharedStatusTable} is provided, results are shared with the processes on the same host: a result
+ * checked by another process is used until it expires, and once it does only the process holding the lease invokes
+ * its monitor, while the others keep serving the previous result.
+ * <p>
+ * Each {@link HealthTweet} records when its check started and how long it took, and is flagged as cached when
+ * served from cache. The durations of all checks are also recorded in a {@link LatencyHistogram}, and the outcomes of
+ * the last {@link HealthTweetDescriptor#historySize()} checks in a {@link StatusHistory}.
+ * <p>
+ * {@link #tweetAsync()} never blocks the calling thread: an {@link AsyncHealthMonitor} is invoked through its future,
+ * unless a timeout is set, while any other monitor is invoked on the provided {@link Executor}. {@link #tweet()} waits
+ * for the same future, so that an {@link AsyncHealthMonitor} is never invoked twice at once by either.
  *
  * @author Martin Bechtle
  */
 public class HealthTweeter {
 
+    /**
+     * How long to serve the previous shared result before checking whether the process holding the lease is done
+     */
+    static final long LEASE_BUSY_RETRY_MILLIS = 100L;
+
+    static final String EXECUTOR_SATURATED_ERRMSG = "Not checked as no thread is available to enforce the timeout";
+
     private final HealthMonitor monitor;
     private final Dependency dependency;
     private final Clock clock;
-    private final long timeToLiveInMillis;
+    private final AdaptiveTimeToLive timeToLive;
+    private final long staleWhileRevalidateMillis;
+    private final long timeoutMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final List<String> prerequisites;
+    private final Executor executor;
+    private final Executor timeoutExecutor;
+    private final Lock checkLock = new ReentrantLock();
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final StatusHistory statusHistory;
+    private final AtomicReference<CompletableFuture<HealthTweet>> pendingAsyncCheck = new AtomicReference<>();
+
+    private volatile CachedTweet cachedTweet;
 
-    private HealthTweet lastTweet;
-    private Long nextComputeTimeMillis;
+    private volatile HealthTweetListener listener;
 
+    private volatile SharedStatusTable.Slot sharedSlot;
 
+
+    /**
+     * Creates a tweeter invoking the monitor asynchronously, when needed, on a bounded pool of daemon threads shared
+     * by all tweeters created without an executor (see {@link CheckExecutors})
+     *
+     * @param monitor mandatory
+     * @param clock   mandatory
+     */
     public HealthTweeter(HealthMonitor monitor, Clock clock) {
 
+        this(monitor, clock, CheckExecutors.defaultExecutor());
+    }
+
+    /**
+     * @param monitor  mandatory
+     * @param clock    mandatory
+     * @param executor mandatory, used to invoke the monitor asynchronously while serving a stale {@link HealthTweet},
+     *                 or when tweeting asynchronously
+     */
+    public HealthTweeter(HealthMonitor monitor, Clock clock, Executor executor) {
+
+        this(monitor, clock, executor, CheckExecutors.timeoutExecutor());
+    }
+
+    /**
+     * @param timeoutExecutor mandatory, used to invoke the monitor when a timeout is set
+     */
+    HealthTweeter(HealthMonitor monitor, Clock clock, Executor executor, Executor timeoutExecutor) {
+
+        this(monitor, descriptorOf(monitor), clock, executor, timeoutExecutor);
+    }
+
+    private HealthTweeter(HealthMonitor monitor,
+                          HealthTweetDescriptor descriptor,
+                          Clock clock,
+                          Executor executor,
+                          Executor timeoutExecutor) {
+
+        this(monitor,
+                new Dependency(descriptor.importance(), descriptor.type(), descriptor.name()),
+                descriptor,
+                clock,
+                executor,
+                timeoutExecutor);
+    }
+
+    /**
+     * Creates a tweeter for the given {@link Dependency}, which might differ from the one in the descriptor
+     */
+    HealthTweeter(HealthMonitor monitor,
+                  Dependency dependency,
+                  HealthTweetDescriptor descriptor,
+                  Clock clock,
+                  Executor executor) {
+
+        this(monitor, dependency, descriptor, clock, executor, CheckExecutors.timeoutExecutor());
+    }
+
+    private HealthTweeter(HealthMonitor monitor,
+                          Dependency dependency,
+                          HealthTweetDescriptor descriptor,
+                          Clock clock,
+                          Executor executor,
+                          Executor timeoutExecutor) {
+
         this.monitor = notNull(monitor, "monitor");
+        this.dependency = notNull(dependency, "dependency");
         this.clock = notNull(clock, "clock");
+        this.executor = notNull(executor, "executor");
+        this.timeoutExecutor = notNull(timeoutExecutor, "timeoutExecutor");
+        this.timeToLive = AdaptiveTimeToLive.of(descriptor);
+        this.staleWhileRevalidateMillis = Math.max(0, descriptor.secondsStaleWhileRevalidate()) * 1000L;
+        this.timeoutMillis = descriptor.timeoutMillis();
+        this.circuitBreaker = new CircuitBreaker(
+                descriptor.circuitBreakerTimeouts(),
+                descriptor.circuitBreakerSecondsOpen() * 1000L);
+        this.prerequisites = Collections.unmodifiableList(Arrays.asList(descriptor.dependsOn().clone()));
+        this.statusHistory = new StatusHistory(Math.max(0, descriptor.historySize()));
+    }
 
-        Class klass = monitor.getClass();
+    /**
+     * Looks the descriptor up in the registries generated at build time by the jcanary-processor annotation processor,
+     * and only falls back to reflection for monitors compiled without it
+     *
+     * @param monitor a {@link HealthMonitor}, or any other kind of monitor annotated with {@link HealthTweetDescriptor}
+     */
+    static HealthTweetDescriptor descriptorOf(Object monitor) {
 
-        HealthTweetDescriptor descriptor = stream(klass.getAnnotationsByType(HealthTweetDescriptor.class))
-                .findFirst()
-                .map(annotation -> (HealthTweetDescriptor) annotation)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        String.format("%s of type %s requires a %s annotation",
-                                HealthTweet.class.getSimpleName(),
-                                klass.getSimpleName(),
-                                HealthTweetDescriptor.class.getSimpleName()))
-                );
+        Class<?> klass = notNull(monitor, "monitor").getClass();
 
-        this.dependency = new Dependency(descriptor.importance(), descriptor.type(), descriptor.name());
-        this.timeToLiveInMillis = descriptor.secondsToLive() * 1000L;
+        HealthTweetDescriptor descriptor = HealthTweetDescriptors.find(klass);
+        if (descriptor == null) {
+            descriptor = klass.getAnnotation(HealthTweetDescriptor.class);
+        }
+        if (descriptor == null) {
+            throw new IllegalArgumentException(
+                    String.format("%s of type %s requires a %s annotation",
+                            HealthTweet.class.getSimpleName(),
+                            klass.getSimpleName(),
+                            HealthTweetDescriptor.class.getSimpleName()));
+        }
+        return descriptor;
     }
 
     public HealthTweet tweet() {
 
-        return getLastHealthTweetIfNotExpired()
-                .orElseGet(() -> {
-                    HealthResult result = monitor.check();
-                    HealthTweet healthTweet = new HealthTweet(dependency, result);
-                    return setLastHealthTweet(healthTweet);
-                });
+        long now = clock.millis();
+        CachedTweet cached = cachedTweet;
+        if (cached != null && cached.isAliveAt(now)) {
+            return cached.tweet;
+        }
+        if (cached != null && cached.isAliveAt(now - staleWhileRevalidateMillis) && revalidateAsync()) {
+            return cached.tweet;
+        }
+        if (checkLock.tryLock()) {
+            try {
+                // another thread might have refreshed the tweet since the first read
+                cached = cachedTweet;
+                return cached != null && cached.isAliveAt(now) ? cached.tweet : check(now);
+            }
+            finally {
+                checkLock.unlock();
+            }
+        }
+        if (cached != null) {
+            return cached.tweet;
+        }
+        checkLock.lock();
+        try {
+            // the thread holding the lock produced the first tweet, unless its monitor threw an exception
+            cached = cachedTweet;
+            return cached != null ? cached.tweet : check(clock.millis());
+        }
+        finally {
+            checkLock.unlock();
+        }
     }
 
-    private Optional<HealthTweet> getLastHealthTweetIfNotExpired() {
+    /**
+     * Same as {@link #tweet()}, without ever blocking the calling thread
+     *
+     * @return a future completed straight away if the cached {@link HealthTweet} is returned, or else once the monitor
+     * completes, exceptionally if the monitor failed
+     */
+    public CompletableFuture<HealthTweet> tweetAsync() {
 
         long now = clock.millis();
-        if (lastTweet != null && nextComputeTimeMillis != null && nextComputeTimeMillis > now) {
-            return Optional.of(lastTweet);
+        CachedTweet cached = cachedTweet;
+        if (cached != null && cached.isAliveAt(now)) {
+            return CompletableFuture.completedFuture(cached.tweet);
+        }
+        if (cached != null && cached.isAliveAt(now - staleWhileRevalidateMillis) && revalidateAsync()) {
+            return CompletableFuture.completedFuture(cached.tweet);
+        }
+        if (isCheckedAsync()) {
+            return checkAsync((AsyncHealthMonitor) monitor, cached, now);
+        }
+        try {
+            return CompletableFuture.supplyAsync(this::tweet, executor);
+        }
+        catch (RejectedExecutionException e) {
+            CompletableFuture<HealthTweet> futureTweet = new CompletableFuture<>();
+            try {
+                futureTweet.complete(tweet());
+            }
+            catch (RuntimeException tweetException) {
+                futureTweet.completeExceptionally(tweetException);
+            }
+            return futureTweet;
+        }
+    }
+
+    /**
+     * Invokes the monitor regardless of whether the last {@link HealthTweet} expired, and caches the result
+     *
+     * @return the new {@link HealthTweet}
+     */
+    HealthTweet refresh() {
+
+        checkLock.lock();
+        try {
+            return check(clock.millis());
+        }
+        finally {
+            checkLock.unlock();
+        }
+    }
+
+    /**
+     * Invokes the monitor on the executor, unless already doing so
+     *
+     * @return false if the executor rejected the task, true otherwise
+     */
+    private boolean revalidateAsync() {
+
+        if (!revalidating.compareAndSet(false, true)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh();
+                }
+                catch (RuntimeException e) {
+                    // the stale tweet is served until the grace period ends, then the next caller invokes the monitor
+                }
+                finally {
+                    revalidating.set(false);
+                }
+            });
+            return true;
+        }
+        catch (RejectedExecutionException e) {
+            revalidating.set(false);
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the monitor is an {@link AsyncHealthMonitor} invoked through its future, both by {@link #tweet()}
+     * and {@link #tweetAsync()}. Timeouts, the circuit breaker and shared results are only handled by the synchronous
+     * check, so invoke it through {@link AsyncHealthMonitor#check()} instead
+     */
+    private boolean isCheckedAsync() {
+
+        return monitor instanceof AsyncHealthMonitor && timeoutMillis <= 0 && sharedSlot == null;
+    }
+
+    /**
+     * Invokes the monitor through its future, unless another caller is already doing so, in which case the previous
+     * {@link HealthTweet} is returned, or the pending one if the monitor was never invoked before
+     */
+    private CompletableFuture<HealthTweet> checkAsync(AsyncHealthMonitor asyncMonitor, CachedTweet previous, long now) {
+
+        CompletableFuture<HealthTweet> futureTweet = new CompletableFuture<>();
+        CompletableFuture<HealthTweet> pending = pendingAsyncCheck.get();
+        while (pending == null) {
+            if (pendingAsyncCheck.compareAndSet(null, futureTweet)) {
+                startAsyncCheck(asyncMonitor, futureTweet, now);
+                return futureTweet;
+            }
+            pending = pendingAsyncCheck.get();
+        }
+        return previous != null ? CompletableFuture.completedFuture(previous.tweet) : pending;
+    }
+
+    private void startAsyncCheck(AsyncHealthMonitor asyncMonitor, CompletableFuture<HealthTweet> futureTweet, long now) {
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<HealthResult> futureResult;
+        try {
+            futureResult = asyncMonitor.checkAsync();
+        }
+        catch (RuntimeException e) {
+            futureResult = new CompletableFuture<>();
+            futureResult.completeExceptionally(e);
+        }
+        futureResult.whenComplete((result, error) -> {
+            long durationNanos = System.nanoTime() - startNanos;
+            latencyHistogram.record(durationNanos);
+            try {
+                if (error != null) {
+                    throw error instanceof CompletionException && error.getCause() != null
+                            ? rethrow(error.getCause())
+                            : rethrow(error);
+                }
+                if (result.getStatus() != DependencyStatus.HEALTHY) {
+                    failureCount.incrementAndGet();
+                }
+                HealthTweet healthTweet = cache(new HealthTweet(dependency, result, now, durationNanos, false), now);
+                pendingAsyncCheck.set(null);
+                futureTweet.complete(healthTweet);
+            }
+            catch (RuntimeException | Error e) {
+                failureCount.incrementAndGet();
+                pendingAsyncCheck.set(null);
+                futureTweet.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Uses the shared result if another process checked more recently than this one, otherwise invokes the monitor
+     * under the lease and shares the result, or serves the previous shared result while another process holds it
+     */
+    private HealthTweet check(long now) {
+
+        SharedStatusTable.Slot slot = sharedSlot;
+        if (slot == null) {
+            return checkMonitor(now);
+        }
+        SharedStatusTable.Entry shared = slot.read();
+        if (isNewerAndAlive(shared, now)) {
+            return cache(shared.getTweet(), shared.getExpiryTimeMillis(), shared.getTimeToLiveMillis());
+        }
+        FileLock lease = slot.tryLease();
+        if (lease == null) {
+            return shared != null
+                    ? cache(shared.getTweet(), now + LEASE_BUSY_RETRY_MILLIS, LEASE_BUSY_RETRY_MILLIS)
+                    : checkMonitor(now);
+        }
+        try {
+            // the previous lease holder might have shared its result since the first read
+            shared = slot.read();
+            if (isNewerAndAlive(shared, now)) {
+                return cache(shared.getTweet(), shared.getExpiryTimeMillis(), shared.getTimeToLiveMillis());
+            }
+            HealthTweet healthTweet = checkMonitor(now);
+            slot.write(healthTweet, cachedTweet.expiryTimeMillis);
+            return healthTweet;
+        }
+        finally {
+            slot.release(lease);
         }
-        return Optional.empty();
     }
 
-    private HealthTweet setLastHealthTweet(HealthTweet healthTweet) {
+    private boolean isNewerAndAlive(SharedStatusTable.Entry shared, long now) {
 
-        lastTweet = healthTweet;
-        nextComputeTimeMillis = clock.millis() + timeToLiveInMillis;
-        return lastTweet;
+        CachedTweet cached = cachedTweet;
+        return shared != null
+                && shared.isAliveAt(now)
+                && (cached == null || shared.getTweet().getCheckedAtMillis() > cached.tweet.getCheckedAtMillis());
+    }
+
+    private HealthTweet checkMonitor(long now) {
+
+        if (isCheckedAsync()) {
+            // joins the check started by tweetAsync(), if any, so that the monitor is never invoked twice at once
+            try {
+                return checkAsync((AsyncHealthMonitor) monitor, null, now).join();
+            }
+            catch (CompletionException e) {
+                throw e.getCause() != null ? rethrow(e.getCause()) : e;
+            }
+        }
+        if (timeoutMillis > 0 && circuitBreaker.isOpenAt(now)) {
+            HealthResult result = HealthResult.of(DependencyStatus.CRITICAL, String.format(
+                    "Not checked after repeated timeouts, next check in %d seconds",
+                    TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.getOpenUntilMillis() - now)));
+            return cache(new HealthTweet(dependency, result, now, 0L, false), now);
+        }
+        long startNanos = System.nanoTime();
+        HealthResult result;
+        try {
+            result = timeoutMillis > 0 ? checkWithTimeout(now) : monitor.check();
+        }
+        catch (RuntimeException e) {
+            latencyHistogram.record(System.nanoTime() - startNanos);
+            failureCount.incrementAndGet();
+            throw e;
+        }
+        if (result == BatchHealthTweeters.CACHED_BY_BATCH) {
+            // cached and recorded by another member of the batch, while this one was waiting for its check
+            return cachedTweet.tweet;
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+        latencyHistogram.record(durationNanos);
+        if (result.getStatus() != DependencyStatus.HEALTHY) {
+            failureCount.incrementAndGet();
+        }
+        HealthTweet healthTweet = new HealthTweet(dependency, result, now, durationNanos, false);
+        BatchHealthTweeters.Expiry batchExpiry = monitor instanceof BatchHealthTweeters.Member
+                ? ((BatchHealthTweeters.Member) monitor).getExpiry()
+                : null;
+        if (batchExpiry != null && batchExpiry.getExpiryTimeMillis() > now) {
+            // expires along with the other members of the batch, cached by the same check
+            return cache(healthTweet, batchExpiry.getExpiryTimeMillis(), batchExpiry.getTimeToLiveMillis());
+        }
+        return cache(healthTweet, now);
+    }
+
+    /**
+     * Caches a copy of the tweet flagged as cached, so that cache hits do not need to allocate one
+     *
+     * @return the given tweet
+     */
+    private HealthTweet cache(HealthTweet healthTweet, long now) {
+
+        long timeToLiveMillis = timeToLive.next(healthTweet.getResult().getStatus());
+        return cache(healthTweet, now + timeToLiveMillis, timeToLiveMillis);
+    }
+
+    private HealthTweet cache(HealthTweet healthTweet, long expiryTimeMillis, long timeToLiveMillis) {
+
+        CachedTweet previous = cachedTweet;
+        cachedTweet = new CachedTweet(healthTweet.asCached(), expiryTimeMillis, timeToLiveMillis);
+        // a shared result is cached again while another process holds the lease, but is only one outcome
+        if (!healthTweet.isCached()
+                || previous == null
+                || previous.tweet.getCheckedAtMillis() != healthTweet.getCheckedAtMillis()) {
+            statusHistory.record(healthTweet.getCheckedAtMillis(), healthTweet.getResult().getStatus(),
+                    healthTweet.getDurationNanos());
+        }
+
+        HealthTweetListener currentListener = listener;
+        if (currentListener != null
+                && (previous == null || !previous.tweet.getResult().equals(healthTweet.getResult()))) {
+            try {
+                currentListener.onChange(healthTweet);
+            }
+            catch (RuntimeException e) {
+                // a failing listener must not fail the check, which was cached already
+            }
+        }
+        return healthTweet;
+    }
+
+    private HealthResult checkWithTimeout(long now) {
+
+        FutureTask<HealthResult> task = new FutureTask<>(monitor::check);
+        try {
+            timeoutExecutor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            // most likely full of hung checks: running this one inline would not be bound by the timeout
+            circuitBreaker.onTimeout(now);
+            return HealthResult.of(DependencyStatus.UNKNOWN, EXECUTOR_SATURATED_ERRMSG);
+        }
+        try {
+            HealthResult result = task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onCompletion();
+            return result;
+        }
+        catch (TimeoutException e) {
+            task.cancel(true);
+            circuitBreaker.onTimeout(now);
+            return HealthResult.of(DependencyStatus.CRITICAL,
+                    String.format("Check timed out after %d milliseconds", timeoutMillis));
+        }
+        catch (ExecutionException e) {
+            circuitBreaker.onCompletion();
+            throw rethrow(e.getCause());
+        }
+        catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + dependency.getName(), e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * Reads the cache without ever invoking the monitor
+     *
+     * @return the last {@link HealthTweet} produced, even if expired, or null if the monitor was never invoked
+     */
+    public HealthTweet getLastHealthTweet() {
+
+        CachedTweet cached = cachedTweet;
+        return cached != null ? cached.tweet : null;
+    }
+
+    /**
+     * @return the last {@link HealthTweet} produced if it has not expired yet, otherwise null
+     */
+    HealthTweet getLastHealthTweetIfNotExpired() {
+
+        CachedTweet cached = cachedTweet;
+        return cached != null && cached.isAliveAt(clock.millis()) ? cached.tweet : null;
+    }
+
+    /**
+     * Caches the given {@link HealthTweet} as if it was produced by the monitor now
+     */
+    HealthTweet setLastHealthTweet(HealthTweet healthTweet) {
+
+        return cache(healthTweet, clock.millis());
+    }
+
+    /**
+     * Caches the given {@link HealthTweet}, produced by a check shared with other tweeters, until the given expiry
+     * time, and records it as a check of this tweeter
+     */
+    HealthTweet cacheChecked(HealthTweet healthTweet, long expiryTimeMillis, long timeToLiveMillis) {
+
+        latencyHistogram.record(healthTweet.getDurationNanos());
+        if (healthTweet.getResult().getStatus() != DependencyStatus.HEALTHY) {
+            failureCount.incrementAndGet();
+        }
+        return cache(healthTweet, expiryTimeMillis, timeToLiveMillis);
     }
 
     public String getName() {
@@ -83,4 +602,92 @@ public class HealthTweeter {
 
         return dependency;
     }
+
+    /**
+     * @return the histogram of how long the invocations of the monitor took, its count being the number of invocations
+     */
+    public LatencyHistogram getLatencyHistogram() {
+
+        return latencyHistogram;
+    }
+
+    /**
+     * @return the outcomes of the last checks, including the ones reported without invoking the monitor
+     */
+    public StatusHistory getStatusHistory() {
+
+        return statusHistory;
+    }
+
+    /**
+     * @return the number of invocations of the monitor that threw an exception or did not report
+     * {@link DependencyStatus#HEALTHY}
+     */
+    public long getFailureCount() {
+
+        return failureCount.get();
+    }
+
+    /**
+     * @param listener notified whenever the result changes, or null to stop notifying
+     */
+    void setListener(HealthTweetListener listener) {
+
+        this.listener = listener;
+    }
+
+    /**
+     * Shares results through such table from now on, unless results are never cached
+     *
+     * @param table mandatory
+     * @throws IllegalArgumentException if the name cannot be shared
+     * @throws IllegalStateException    if the table is full
+     */
+    void shareResults(SharedStatusTable table) {
+
+        if (timeToLive.getTimeToLiveMillis() > 0) {
+            sharedSlot = table.slotOf(dependency);
+        }
+    }
+
+    /**
+     * @return the names of the monitors this one depends on, as per {@link HealthTweetDescriptor#dependsOn()}
+     */
+    List<String> getPrerequisites() {
+
+        return prerequisites;
+    }
+
+    /**
+     * @return the time to live of the last {@link HealthTweet} produced, or the configured one if none yet
+     */
+    long getTimeToLiveInMillis() {
+
+        CachedTweet cached = cachedTweet;
+        return cached != null ? cached.timeToLiveMillis : timeToLive.getTimeToLiveMillis();
+    }
+
+    /**
+     * Immutable pair of a {@link HealthTweet} and the time at which it expires
+     */
+    private static final class CachedTweet {
+
+        private final HealthTweet tweet;
+
+        private final long expiryTimeMillis;
+
+        private final long timeToLiveMillis;
+
+        private CachedTweet(HealthTweet tweet, long expiryTimeMillis, long timeToLiveMillis) {
+
+            this.tweet = tweet;
+            this.expiryTimeMillis = expiryTimeMillis;
+            this.timeToLiveMillis = timeToLiveMillis;
+        }
+
+        private boolean isAliveAt(long timeMillis) {
+
+            return expiryTimeMillis > timeMillis;
+        }
+    }
 }
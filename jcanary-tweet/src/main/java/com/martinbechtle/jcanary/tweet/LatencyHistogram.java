@@ -0,0 +1,94 @@
+package com.martinbechtle.jcanary.tweet;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of how long the checks of a {@link com.martinbechtle.jcanary.api.HealthMonitor} took.
+ * <p>
+ * Uses a fixed set of buckets, from one millisecond to ten seconds, so its memory footprint does not depend on the
+ * number of recorded checks. Recording is lock-free and safe to be done concurrently with reading.
+ *
+ * @author Martin Bechtle
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_NANOS = {
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(25),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(250),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(2500),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10),
+            Long.MAX_VALUE
+    };
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_NANOS.length);
+
+    private final AtomicLong sumNanos = new AtomicLong();
+
+    /**
+     * @param durationNanos duration of a check, negative values are recorded as zero
+     */
+    public void record(long durationNanos) {
+
+        long duration = Math.max(0, durationNanos);
+        int bucket = 0;
+        while (duration > BUCKET_UPPER_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        sumNanos.addAndGet(duration);
+    }
+
+    /**
+     * @return the number of buckets, the last one being unbounded
+     */
+    public int getBucketCount() {
+
+        return BUCKET_UPPER_BOUNDS_NANOS.length;
+    }
+
+    /**
+     * @return the inclusive upper bound of the given bucket, {@link Long#MAX_VALUE} for the last one
+     */
+    public long getBucketUpperBoundNanos(int bucket) {
+
+        return BUCKET_UPPER_BOUNDS_NANOS[bucket];
+    }
+
+    /**
+     * @return the number of checks that fell into the given bucket (not cumulative)
+     */
+    public long getCount(int bucket) {
+
+        return bucketCounts.get(bucket);
+    }
+
+    /**
+     * @return the total number of recorded checks
+     */
+    public long getCount() {
+
+        long count = 0;
+        for (int i = 0; i < bucketCounts.length(); i++) {
+            count += bucketCounts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of the durations of all recorded checks
+     */
+    public long getSumNanos() {
+
+        return sumNanos.get();
+    }
+}
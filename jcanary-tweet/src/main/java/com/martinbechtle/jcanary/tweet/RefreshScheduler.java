@@ -0,0 +1,194 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jrequire.Require;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks after a delay, using a hashed timing wheel driven by a single daemon thread.
+ * <p>
+ * Scheduling a task is a lock-free enqueue and expiring a task costs a constant amount of work per tick, independently
+ * from how many tasks are scheduled, so this scales to thousands of {@link HealthTweeter}s without one timer per
+ * monitor. The price is precision: tasks fire on the first tick after their delay has elapsed.
+ * <p>
+ * Due tasks are handed over to the provided {@link Executor}, so that slow tasks never delay the wheel. If the executor
+ * rejects a task, or fails in any other way, the task is retried on the next tick rather than run on the wheel thread,
+ * which would then be blocked by a slow task.
+ *
+ * @author Martin Bechtle
+ */
+public class RefreshScheduler implements AutoCloseable {
+
+    static final long DEFAULT_TICK_MILLIS = 1000L;
+
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Executor executor;
+
+    private final long tickNanos;
+
+    private final Queue<Timeout>[] wheel;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Thread worker;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a scheduler ticking once per second
+     *
+     * @param executor mandatory, used to run due tasks
+     */
+    public RefreshScheduler(Executor executor) {
+
+        this(executor, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param executor   mandatory, used to run due tasks
+     * @param tickMillis duration of a tick, which is the precision of the scheduler. Must be positive
+     * @param wheelSize  number of slots in the wheel. Delays longer than tickMillis * wheelSize are still supported,
+     *                   but cost one more check per full rotation. Must be positive
+     */
+    @SuppressWarnings("unchecked")
+    public RefreshScheduler(Executor executor, long tickMillis, int wheelSize) {
+
+        Require.notNull(executor, "executor");
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        this.executor = executor;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.worker = new Thread(this::run, "jcanary-refresh-scheduler");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after the given delay
+     *
+     * @param task        mandatory
+     * @param delayMillis the delay, rounded up to the next tick. Tasks with a non positive delay run on the next tick
+     */
+    public void schedule(Runnable task, long delayMillis) {
+
+        Require.notNull(task, "task");
+        if (closed) {
+            return;
+        }
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        long ticks = Math.max(1, (delayNanos + tickNanos - 1) / tickNanos);
+        pendingTimeouts.add(new Timeout(task, ticks));
+    }
+
+    /**
+     * @return the duration of a tick in milliseconds
+     */
+    public long getTickMillis() {
+
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    /**
+     * Stops the wheel. Tasks not run yet, or scheduled from now on, are discarded, while tasks already handed over to
+     * the executor are not affected.
+     */
+    @Override
+    public void close() {
+
+        closed = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+
+        long startNanos = System.nanoTime();
+        long tick = 0;
+        int cursor = 0;
+
+        while (!closed) {
+            long sleepNanos = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+            }
+            tick++;
+            cursor = (cursor + 1) % wheel.length;
+            try {
+                transferPendingTimeouts(cursor);
+                expire(wheel[cursor]);
+            }
+            catch (RuntimeException e) {
+                // nothing must stop the wheel, as that would stop all refreshes
+            }
+        }
+    }
+
+    /**
+     * Moves newly scheduled timeouts into the wheel, relative to the slot about to be expired.
+     * Only ever invoked by the worker thread, so the slots need no synchronisation.
+     */
+    private void transferPendingTimeouts(int cursor) {
+
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            // the current slot is expired right after this method, which accounts for one tick already
+            long ticksAfterCurrent = timeout.ticks - 1;
+            timeout.remainingRounds = ticksAfterCurrent / wheel.length;
+            wheel[(int) ((cursor + ticksAfterCurrent) % wheel.length)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> slot) {
+
+        for (int i = slot.size(); i > 0; i--) {
+            Timeout timeout = slot.poll();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                slot.add(timeout);
+            }
+            else {
+                dispatch(timeout.task);
+            }
+        }
+    }
+
+    private void dispatch(Runnable task) {
+
+        try {
+            executor.execute(task);
+        }
+        catch (RuntimeException e) {
+            // most likely a RejectedExecutionException from a saturated executor, which might have room on next tick
+            pendingTimeouts.add(new Timeout(task, 1));
+        }
+    }
+
+    private static class Timeout {
+
+        private final Runnable task;
+
+        private final long ticks;
+
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long ticks) {
+
+            this.task = task;
+            this.ticks = ticks;
+        }
+    }
+}
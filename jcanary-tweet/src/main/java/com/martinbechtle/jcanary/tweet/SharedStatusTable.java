@@ -0,0 +1,427 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import com.martinbechtle.jrequire.Require;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped file through which the {@link HealthTweeter}s of many processes on the same host share their
+ * {@link HealthTweet}s, so that each dependency is checked by one process at a time rather than by all of them.
+ * <p>
+ * The file has a fixed layout: a header, then one slot per {@link Dependency}, then one fixed size text area per slot.
+ * Each slot holds the name of its dependency, the status ordinal, when the check started and how long it took, when
+ * the result expires and the offset and length of its status text. Slots are claimed by name, the first time a
+ * dependency is shared, by probing from the hash of its name while holding a lock on the header.
+ * <p>
+ * Each slot is written by a single process at a time, the one holding its lease, which is a lock on the slot's
+ * region of the file: the operating system releases it if the process dies, so a crashed process never blocks the
+ * others. Readers never lock: a sequence number, odd while a write is in progress, tells them when to read again.
+ * <p>
+ * Status texts longer than the text area are truncated.
+ *
+ * @author Martin Bechtle
+ */
+public class SharedStatusTable implements AutoCloseable {
+
+    static final int DEFAULT_SLOT_COUNT = 256;
+
+    static final int DEFAULT_TEXT_BYTES = 256;
+
+    static final int MAX_NAME_BYTES = 80;
+
+    private static final int MAGIC = 0x4A435354; // JCST
+
+    private static final int LAYOUT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+
+    private static final int SLOT_BYTES = 128;
+
+    private static final int SEQUENCE = 0;
+
+    private static final int STATUS = 8;
+
+    private static final int TEXT_LENGTH = 12;
+
+    private static final int CHECKED_AT = 16;
+
+    private static final int DURATION = 24;
+
+    private static final int EXPIRY_TIME = 32;
+
+    private static final int TEXT_OFFSET = 40;
+
+    private static final int NAME_LENGTH = 44;
+
+    private static final int NAME = 48;
+
+    /**
+     * Reads of a slot are retried at most this many times while it is being written, after which it is considered
+     * empty: the writer might have died half way, in which case the next lease holder overwrites it
+     */
+    private static final int MAX_READ_ATTEMPTS = 1000;
+
+    /**
+     * As {@link MappedByteBuffer} offers no ordered accesses in Java 8, a volatile write followed by a volatile read
+     * of this field is used as a full fence around the fields of a slot
+     */
+    private static volatile int fence;
+
+    private final Path file;
+
+    private final int slotCount;
+
+    private final int textBytes;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Opens the table with {@value DEFAULT_SLOT_COUNT} slots and {@value DEFAULT_TEXT_BYTES} bytes of status text per
+     * slot, creating the file if it does not exist
+     *
+     * @param file mandatory, the same for all the processes sharing results
+     * @throws IllegalArgumentException if the file exists with a different layout
+     * @throws UncheckedIOException     if the file cannot be opened or mapped
+     */
+    public SharedStatusTable(Path file) {
+
+        this(file, DEFAULT_SLOT_COUNT, DEFAULT_TEXT_BYTES);
+    }
+
+    /**
+     * @param file      mandatory, the same for all the processes sharing results
+     * @param slotCount maximum number of dependencies shared. Must be positive
+     * @param textBytes maximum length of each status text, in UTF-8 bytes. Must not be negative
+     * @throws IllegalArgumentException if the file exists with a different layout
+     * @throws UncheckedIOException     if the file cannot be opened or mapped
+     */
+    public SharedStatusTable(Path file, int slotCount, int textBytes) {
+
+        this.file = Require.notNull(file, "file");
+        if (slotCount <= 0 || textBytes < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid layout with %d slots and %d text bytes", slotCount, textBytes));
+        }
+        this.slotCount = slotCount;
+        this.textBytes = textBytes;
+        long size = HEADER_BYTES + (long) slotCount * (SLOT_BYTES + textBytes);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid layout with %d slots and %d text bytes", slotCount, textBytes));
+        }
+        try {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            initialise();
+        }
+        catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+        catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the header if no process did so yet, otherwise checks that it matches this layout
+     */
+    private void initialise() throws IOException {
+
+        synchronized (SharedStatusTable.class) {
+            try (FileLock ignored = channel.lock(0, HEADER_BYTES, false)) {
+                if (buffer.getInt(0) != MAGIC) {
+                    buffer.putInt(4, LAYOUT_VERSION);
+                    buffer.putInt(8, slotCount);
+                    buffer.putInt(12, textBytes);
+                    for (int index = 0; index < slotCount; index++) {
+                        buffer.putInt(slotOffset(index) + TEXT_OFFSET, textOffset(index));
+                    }
+                    // last, so that a process dying half way leaves the file to be initialised again
+                    buffer.putInt(0, MAGIC);
+                }
+                else if (buffer.getInt(4) != LAYOUT_VERSION
+                        || buffer.getInt(8) != slotCount
+                        || buffer.getInt(12) != textBytes) {
+                    throw new IllegalArgumentException(String.format(
+                            "%s has layout version %d with %d slots and %d text bytes, expected %d with %d and %d",
+                            file, buffer.getInt(4), buffer.getInt(8), buffer.getInt(12),
+                            LAYOUT_VERSION, slotCount, textBytes));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the slot of such {@link Dependency}, claiming a free one if no process shared it yet
+     * @throws IllegalArgumentException if the name of the dependency is longer than {@value MAX_NAME_BYTES} bytes
+     * @throws IllegalStateException    if all slots are claimed by other dependencies
+     */
+    Slot slotOf(Dependency dependency) {
+
+        byte[] name = dependency.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length == 0 || name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException(String.format("%s with name %s cannot be shared, as its name is not "
+                    + "between 1 and %d bytes long", HealthTweet.class, dependency.getName(), MAX_NAME_BYTES));
+        }
+        // the lock on the header excludes other processes, while other threads of this process would fail to take it
+        synchronized (SharedStatusTable.class) {
+            try (FileLock ignored = channel.lock(0, HEADER_BYTES, false)) {
+                int start = (dependency.getName().hashCode() & Integer.MAX_VALUE) % slotCount;
+                for (int probe = 0; probe < slotCount; probe++) {
+                    int index = (start + probe) % slotCount;
+                    int offset = slotOffset(index);
+                    int nameLength = buffer.getInt(offset + NAME_LENGTH);
+                    if (nameLength == 0) {
+                        for (int i = 0; i < name.length; i++) {
+                            buffer.put(offset + NAME + i, name[i]);
+                        }
+                        buffer.putInt(offset + NAME_LENGTH, name.length);
+                        return new Slot(offset, dependency);
+                    }
+                    if (nameLength == name.length && hasName(offset, name)) {
+                        return new Slot(offset, dependency);
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        throw new IllegalStateException(String.format("%s has no free slot for %s", file, dependency.getName()));
+    }
+
+    private boolean hasName(int offset, byte[] name) {
+
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(offset + NAME + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slotOffset(int index) {
+
+        return HEADER_BYTES + index * SLOT_BYTES;
+    }
+
+    private int textOffset(int index) {
+
+        return HEADER_BYTES + slotCount * SLOT_BYTES + index * textBytes;
+    }
+
+    private static void fullFence() {
+
+        fence = 0;
+        int ignored = fence;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released once garbage collected
+     */
+    @Override
+    public void close() {
+
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeQuietly() {
+
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            // the original exception is more relevant
+        }
+    }
+
+    /**
+     * A {@link HealthTweet} read from a slot, together with the time at which it expires
+     */
+    static final class Entry {
+
+        private final HealthTweet tweet;
+
+        private final long expiryTimeMillis;
+
+        private Entry(HealthTweet tweet, long expiryTimeMillis) {
+
+            this.tweet = tweet;
+            this.expiryTimeMillis = expiryTimeMillis;
+        }
+
+        HealthTweet getTweet() {
+
+            return tweet;
+        }
+
+        long getExpiryTimeMillis() {
+
+            return expiryTimeMillis;
+        }
+
+        /**
+         * @return the time to live the writer gave to the result
+         */
+        long getTimeToLiveMillis() {
+
+            return expiryTimeMillis - tweet.getCheckedAtMillis();
+        }
+
+        boolean isAliveAt(long timeMillis) {
+
+            return expiryTimeMillis > timeMillis;
+        }
+    }
+
+    /**
+     * The slot claimed by one {@link Dependency}
+     */
+    final class Slot {
+
+        private final int offset;
+
+        private final Dependency dependency;
+
+        private Slot(int offset, Dependency dependency) {
+
+            this.offset = offset;
+            this.dependency = dependency;
+        }
+
+        /**
+         * Reads the last result written by any process, without locking
+         *
+         * @return the last result, flagged as cached, or null if none was ever written
+         */
+        Entry read() {
+
+            byte[] text = new byte[textBytes];
+            for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+                long sequence = buffer.getLong(offset + SEQUENCE);
+                if (sequence == 0) {
+                    return null;
+                }
+                if ((sequence & 1L) != 0) {
+                    Thread.yield();
+                    continue;
+                }
+                fullFence();
+                int status = buffer.getInt(offset + STATUS);
+                int textLength = buffer.getInt(offset + TEXT_LENGTH);
+                long checkedAtMillis = buffer.getLong(offset + CHECKED_AT);
+                long durationNanos = buffer.getLong(offset + DURATION);
+                long expiryTimeMillis = buffer.getLong(offset + EXPIRY_TIME);
+                int textOffset = buffer.getInt(offset + TEXT_OFFSET);
+                boolean valid = status >= 0 && status < DependencyStatus.values().length
+                        && textLength >= 0 && textLength <= textBytes;
+                for (int i = 0; valid && i < textLength; i++) {
+                    text[i] = buffer.get(textOffset + i);
+                }
+                fullFence();
+                if (buffer.getLong(offset + SEQUENCE) == sequence && valid) {
+                    HealthResult result = HealthResult.of(DependencyStatus.values()[status],
+                            new String(text, 0, textLength, StandardCharsets.UTF_8));
+                    return new Entry(new HealthTweet(dependency, result, checkedAtMillis, durationNanos, true),
+                            expiryTimeMillis);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Must only be called while holding the lease
+         *
+         * @param healthTweet      the result of the check, its status text truncated if too long
+         * @param expiryTimeMillis when the result expires
+         */
+        void write(HealthTweet healthTweet, long expiryTimeMillis) {
+
+            byte[] text = truncate(healthTweet.getResult().getStatusText());
+            int textOffset = buffer.getInt(offset + TEXT_OFFSET);
+            // odd already if the previous writer died half way
+            long sequence = buffer.getLong(offset + SEQUENCE) | 1L;
+            buffer.putLong(offset + SEQUENCE, sequence);
+            fullFence();
+            buffer.putInt(offset + STATUS, healthTweet.getResult().getStatus().ordinal());
+            buffer.putInt(offset + TEXT_LENGTH, text.length);
+            buffer.putLong(offset + CHECKED_AT, healthTweet.getCheckedAtMillis());
+            buffer.putLong(offset + DURATION, healthTweet.getDurationNanos());
+            buffer.putLong(offset + EXPIRY_TIME, expiryTimeMillis);
+            for (int i = 0; i < text.length; i++) {
+                buffer.put(textOffset + i, text[i]);
+            }
+            fullFence();
+            buffer.putLong(offset + SEQUENCE, sequence + 1);
+        }
+
+        /**
+         * @return the lease to write this slot, to be released once done, or null if held by another process or
+         * thread
+         */
+        FileLock tryLease() {
+
+            try {
+                return channel.tryLock(offset, SLOT_BYTES, false);
+            }
+            catch (OverlappingFileLockException e) {
+                return null;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void release(FileLock lease) {
+
+            try {
+                lease.release();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private byte[] truncate(String statusText) {
+
+            byte[] text = statusText == null ? new byte[0] : statusText.getBytes(StandardCharsets.UTF_8);
+            if (text.length <= textBytes) {
+                return text;
+            }
+            int length = textBytes;
+            // never split a multi-byte character
+            while (length > 0 && (text[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            return Arrays.copyOf(text, length);
+        }
+    }
+}
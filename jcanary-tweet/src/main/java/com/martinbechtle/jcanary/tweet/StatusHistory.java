@@ -0,0 +1,106 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.DependencyStatus;
+
+/**
+ * The outcomes of the last checks of a {@link com.martinbechtle.jcanary.api.HealthMonitor}, so that a dependency
+ * flapping between two canary requests does not go unnoticed.
+ * <p>
+ * Outcomes are kept in a ring buffer of preallocated primitive arrays, with no object per outcome, so its memory
+ * footprint is fixed by its capacity: 17 bytes per outcome, about half a kilobyte per dependency with the default
+ * {@link HealthTweetDescriptor#historySize()}. Once full, each outcome recorded overwrites the oldest one.
+ * <p>
+ * Outcomes are recorded once per check, so recording and copying take an uncontended lock rather than being
+ * lock-free.
+ *
+ * @author Martin Bechtle
+ */
+public class StatusHistory {
+
+    private static final DependencyStatus[] STATUSES = DependencyStatus.values();
+
+    private final long[] checkedAtMillis;
+
+    private final byte[] statuses;
+
+    private final long[] durationNanos;
+
+    /**
+     * Total number of outcomes recorded, the next one being written at count modulo capacity
+     */
+    private long count;
+
+    /**
+     * @param capacity number of outcomes kept, zero to keep none
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public StatusHistory(int capacity) {
+
+        if (capacity < 0) {
+            throw new IllegalArgumentException(String.format("Invalid capacity %d", capacity));
+        }
+        this.checkedAtMillis = new long[capacity];
+        this.statuses = new byte[capacity];
+        this.durationNanos = new long[capacity];
+    }
+
+    /**
+     * @param checkedAtMillis when the check started
+     * @param status          mandatory, the status reported
+     * @param durationNanos   how long the check took
+     */
+    public synchronized void record(long checkedAtMillis, DependencyStatus status, long durationNanos) {
+
+        if (statuses.length == 0) {
+            return;
+        }
+        int index = (int) (count % statuses.length);
+        this.checkedAtMillis[index] = checkedAtMillis;
+        this.statuses[index] = (byte) status.ordinal();
+        this.durationNanos[index] = durationNanos;
+        count++;
+    }
+
+    /**
+     * Copies the outcomes kept, oldest first, into the given arrays, so that they can be read without holding the lock
+     * and without allocating one object per outcome
+     *
+     * @param checkedAtMillis at least as long as the capacity
+     * @param statuses        at least as long as the capacity
+     * @param durationNanos   at least as long as the capacity
+     * @return the number of outcomes copied
+     * @throws IllegalArgumentException if any array is shorter than the capacity
+     */
+    public synchronized int copyTo(long[] checkedAtMillis, DependencyStatus[] statuses, long[] durationNanos) {
+
+        int capacity = this.statuses.length;
+        if (checkedAtMillis.length < capacity || statuses.length < capacity || durationNanos.length < capacity) {
+            throw new IllegalArgumentException(String.format("Arrays shorter than the capacity %d", capacity));
+        }
+        int size = (int) Math.min(count, capacity);
+        int oldest = (int) ((count - size) % Math.max(1, capacity));
+        for (int i = 0; i < size; i++) {
+            int index = (oldest + i) % capacity;
+            checkedAtMillis[i] = this.checkedAtMillis[index];
+            statuses[i] = STATUSES[this.statuses[index]];
+            durationNanos[i] = this.durationNanos[index];
+        }
+        return size;
+    }
+
+    /**
+     * @return the maximum number of outcomes kept
+     */
+    public int getCapacity() {
+
+        return statuses.length;
+    }
+
+    /**
+     * @return the total number of outcomes recorded, including the ones overwritten since
+     */
+    public synchronized long getCount() {
+
+        return count;
+    }
+}
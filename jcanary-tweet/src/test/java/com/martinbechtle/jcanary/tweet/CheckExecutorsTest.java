@@ -0,0 +1,143 @@
+package com.martinbechtle.jcanary.tweet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link CheckExecutors}
+ *
+ * @author Martin Bechtle
+ */
+@DisplayName("Check Executors")
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class CheckExecutorsTest {
+
+    @Nested
+    @DisplayName("newCheckExecutor(int)")
+    class NewCheckExecutor {
+
+        @Test
+        @DisplayName("should run more concurrent checks than platform threads when virtual threads are supported")
+        void newCheckExecutor() throws InterruptedException {
+
+            ExecutorService executor = CheckExecutors.newCheckExecutor(1);
+            int concurrentChecks = CheckExecutors.isVirtualThreadSupported() ? 100 : 1;
+            try {
+                assertTrue(runConcurrently(executor, concurrentChecks));
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should throw exception when the maximum number of platform threads is not positive")
+        void newCheckExecutorInvalid() {
+
+            assertThrows(IllegalArgumentException.class, () -> CheckExecutors.newCheckExecutor(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("defaultExecutor()")
+    class DefaultExecutor {
+
+        @Test
+        @DisplayName("should share one executor running checks on daemon threads")
+        void defaultExecutor() {
+
+            ExecutorService executor = CheckExecutors.defaultExecutor();
+            Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+
+            assertTrue(thread.isDaemon());
+            assertSame(executor, CheckExecutors.defaultExecutor());
+        }
+    }
+
+    @Nested
+    @DisplayName("newPlatformThreadExecutor(int)")
+    class NewPlatformThreadExecutor {
+
+        @Test
+        @DisplayName("should run checks concurrently on named daemon threads")
+        void newPlatformThreadExecutor() throws InterruptedException {
+
+            ExecutorService executor = CheckExecutors.newPlatformThreadExecutor(4);
+            try {
+                Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+
+                assertTrue(thread.isDaemon());
+                assertEquals("jcanary-check-1", thread.getName());
+                assertTrue(runConcurrently(executor, 4));
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should reject tasks rather than queueing them while all threads are busy")
+        void newPlatformThreadExecutorBusy() throws InterruptedException {
+
+            ExecutorService executor = CheckExecutors.newPlatformThreadExecutor(1);
+            CountDownLatch release = new CountDownLatch(1);
+            try {
+                executor.execute(() -> awaitQuietly(release));
+
+                assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+
+                release.countDown();
+                assertTrue(runConcurrently(executor, 1));
+            }
+            finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true if the given number of tasks ran at the same time on the executor
+     */
+    private static boolean runConcurrently(ExecutorService executor, int tasks) throws InterruptedException {
+
+        CountDownLatch running = new CountDownLatch(tasks);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        boolean allRunning = running.await(5, TimeUnit.SECONDS);
+        release.countDown();
+        return allRunning;
+    }
+}
@@ -0,0 +1,77 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link DependencyFilter}
+ *
+ * @author Martin Bechtle
+ */
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class DependencyFilterTest {
+
+    private final Dependency primaryDatabase =
+            new Dependency(DependencyImportance.PRIMARY, DependencyType.DATABASE, "database");
+
+    private final Dependency secondaryQueue =
+            new Dependency(DependencyImportance.SECONDARY, DependencyType.MESSAGE_CHANNEL, "queue");
+
+    @Nested
+    @DisplayName("matches(Dependency)")
+    class Matches {
+
+        @Test
+        @DisplayName("should match any dependency when no criterion is given")
+        void matchesAll() {
+
+            assertTrue(DependencyFilter.ALL.isAll());
+            assertTrue(DependencyFilter.ALL.matches(primaryDatabase));
+            assertTrue(DependencyFilter.of(Collections.emptyList(), null, null).matches(secondaryQueue));
+        }
+
+        @Test
+        @DisplayName("should match dependencies meeting every criterion with any of its values")
+        void matchesEveryCriterion() {
+
+            DependencyFilter filter = DependencyFilter.of(
+                    Arrays.asList(DependencyImportance.PRIMARY, DependencyImportance.SECONDARY),
+                    Collections.singleton(DependencyType.DATABASE),
+                    null);
+
+            assertFalse(filter.isAll());
+            assertTrue(filter.matches(primaryDatabase));
+            assertFalse(filter.matches(secondaryQueue));
+            assertFalse(DependencyFilter.of(null, null, Collections.singleton("other")).matches(primaryDatabase));
+        }
+    }
+
+    @Nested
+    @DisplayName("equals(Object)")
+    class Equals {
+
+        @Test
+        @DisplayName("should be equal to a filter with the same criteria in any order")
+        void equalsSameCriteria() {
+
+            DependencyFilter filter = DependencyFilter.of(null, null, Arrays.asList("database", "queue"));
+            DependencyFilter sameFilter = DependencyFilter.of(null, null, Arrays.asList("queue", "database"));
+
+            assertEquals(filter, sameFilter);
+            assertEquals(filter.hashCode(), sameFilter.hashCode());
+            assertEquals(DependencyFilter.importance(DependencyImportance.PRIMARY),
+                    DependencyFilter.of(Collections.singleton(DependencyImportance.PRIMARY), null, null));
+        }
+    }
+}
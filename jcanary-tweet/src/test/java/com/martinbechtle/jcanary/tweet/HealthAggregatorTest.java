@@ -1,17 +1,39 @@
 package com.martinbechtle.jcanary.tweet;
 
 import com.martinbechtle.jcanary.api.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import static com.martinbechtle.jcanary.tweet.HealthAggregator.NOT_COMPUTED_YET_ERRMSG;
 import static com.martinbechtle.jcanary.tweet.HealthAggregator.UNCAUGTHT_EXCEPTION_ERRMSG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Unit test for {@link HealthAggregator}
@@ -95,6 +117,764 @@ class HealthAggregatorTest {
         }
     }
 
+    @Nested
+    @DisplayName("collect(DependencyFilter)")
+    class CollectFilteredTest {
+
+        @Test
+        @DisplayName("should only invoke and return the monitors selected by the filter")
+        void collectFiltered() {
+
+            TestSecondaryHealthMonitor secondaryMonitor = new TestSecondaryHealthMonitor();
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(secondaryMonitor)
+                    .register(new TestHealthMonitorWithCriticalStatus());
+
+            List<HealthTweet> actualTweets =
+                    healthAggregator.collect(DependencyFilter.importance(DependencyImportance.PRIMARY));
+
+            assertEquals(Arrays.asList(
+                    new HealthTweet(defaultDependency("monitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("failingMonitor"), criticalResult())),
+                    actualTweets);
+            assertEquals(0, secondaryMonitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should select monitors meeting every criterion")
+        void collectFilteredByTypeAndName() {
+
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestSecondaryHealthMonitor());
+
+            assertEquals(
+                    Collections.singletonList(new HealthTweet(defaultDependency("monitor"), HealthResult.ok())),
+                    healthAggregator.collect(DependencyFilter.of(
+                            null, Collections.singleton(DependencyType.RESOURCE), Arrays.asList("monitor", "other"))));
+            assertEquals(
+                    Collections.emptyList(),
+                    healthAggregator.collect(DependencyFilter.of(
+                            null, Collections.singleton(DependencyType.MESSAGE_CHANNEL), null)));
+        }
+
+        @Test
+        @DisplayName("should collect the prerequisites of the selected monitors without returning them")
+        void collectFilteredWithPrerequisites() {
+
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(criticalResult());
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            TestDependentMonitor transitiveDependent = new TestTransitiveDependentMonitor(prerequisite);
+            healthAggregator
+                    .register(prerequisite)
+                    .register(dependent)
+                    .register(transitiveDependent);
+
+            List<HealthTweet> actualTweets = healthAggregator.collect(
+                    DependencyFilter.of(null, null, Collections.singleton("apiBehindApi")));
+
+            assertEquals(1, actualTweets.size());
+            assertEquals("apiBehindApi", actualTweets.get(0).getDependency().getName());
+            assertEquals(DependencyStatus.UNKNOWN, actualTweets.get(0).getResult().getStatus());
+            assertEquals(1, prerequisite.invocations.get());
+            assertEquals(0, dependent.invocations.get());
+            assertEquals(0, transitiveDependent.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should return the same as collect() when selecting all monitors")
+        void collectFilteredAll() {
+
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestSecondaryHealthMonitor());
+
+            healthAggregator.collect();
+            List<HealthTweet> cachedTweets = healthAggregator.collect();
+
+            assertSame(cachedTweets, healthAggregator.collect(DependencyFilter.ALL));
+        }
+
+        @Test
+        @DisplayName("should only invoke the selected monitors asynchronously, in registration order")
+        void collectAsyncFiltered() {
+
+            TestSecondaryHealthMonitor secondaryMonitor = new TestSecondaryHealthMonitor();
+            TestAsyncHealthMonitor asyncMonitor = new TestAsyncHealthMonitor();
+            healthAggregator
+                    .register(asyncMonitor)
+                    .register(secondaryMonitor)
+                    .register(new TestHealthMonitorWithDescriptor());
+
+            CompletableFuture<List<HealthTweet>> futureTweets =
+                    healthAggregator.collectAsync(DependencyFilter.importance(DependencyImportance.PRIMARY));
+            asyncMonitor.futureResult.complete(HealthResult.ok());
+
+            assertEquals(Arrays.asList(
+                    new HealthTweet(defaultDependency("asyncMonitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("monitor"), HealthResult.ok())),
+                    futureTweets.join());
+            assertEquals(0, secondaryMonitor.invocations.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("register(BatchHealthMonitor)")
+    class BatchTest {
+
+        @Test
+        @DisplayName("should report one tweet per declared dependency in declared order, checking the batch once")
+        void collectBatch() {
+
+            TestBatchHealthMonitor batchMonitor = new TestBatchHealthMonitor("first", "second", "third");
+            batchMonitor.results.put("third", criticalResult());
+            batchMonitor.results.put("first", HealthResult.ok());
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(batchMonitor);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("monitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("first"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("second"),
+                            HealthResult.of(DependencyStatus.UNKNOWN, BatchHealthTweeters.NOT_REPORTED_ERRMSG)),
+                    new HealthTweet(defaultDependency("third"), criticalResult())
+            );
+
+            assertEquals(expectedTweets, healthAggregator.collect());
+            assertEquals(expectedTweets, healthAggregator.collect());
+            assertEquals(1, batchMonitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should cache the results of all dependencies with the same jittered time to live, as checked")
+        void collectBatchJittered() {
+
+            healthAggregator.register(new TestJitteredBatchHealthMonitor("first", "second", "third"));
+
+            healthAggregator.collect();
+
+            assertEquals(1, healthAggregator.getHealthTweeters().stream()
+                    .map(HealthTweeter::getTimeToLiveInMillis)
+                    .distinct()
+                    .count());
+            healthAggregator.getLatencyHistograms().values()
+                    .forEach(latencyHistogram -> assertEquals(1, latencyHistogram.getCount()));
+        }
+
+        @Test
+        @DisplayName("should record each dependency as checked once when they expire concurrently")
+        void collectBatchConcurrently() throws Exception {
+
+            TestBlockingBatchHealthMonitor batchMonitor = new TestBlockingBatchHealthMonitor("first", "second");
+            healthAggregator.register(batchMonitor);
+            Iterator<HealthTweeter> healthTweeters = healthAggregator.getHealthTweeters().iterator();
+            FutureTask<HealthTweet> firstTweet = new FutureTask<>(healthTweeters.next()::tweet);
+            FutureTask<HealthTweet> secondTweet = new FutureTask<>(healthTweeters.next()::tweet);
+
+            new Thread(firstTweet).start();
+            assertTrue(batchMonitor.invoked.await(5, TimeUnit.SECONDS));
+            Thread secondThread = new Thread(secondTweet);
+            secondThread.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (secondThread.getState() != Thread.State.WAITING) {
+                // the second dependency is not waiting for the batch checked for the first one yet
+                assertTrue(System.nanoTime() < deadline, "second dependency did not wait for the batch in time");
+                Thread.yield();
+            }
+            batchMonitor.release.countDown();
+
+            HealthTweet secondCachedTweet = secondTweet.get(5, TimeUnit.SECONDS);
+            assertTrue(secondCachedTweet.isCached());
+            assertEquals(firstTweet.get(5, TimeUnit.SECONDS).getCheckedAtMillis(),
+                    secondCachedTweet.getCheckedAtMillis());
+            healthAggregator.getLatencyHistograms().values()
+                    .forEach(latencyHistogram -> assertEquals(1, latencyHistogram.getCount()));
+            healthAggregator.getStatusHistories().values()
+                    .forEach(statusHistory -> assertEquals(1, statusHistory.getCount()));
+        }
+
+        @Test
+        @DisplayName("should report all dependencies with unknown status when the batch throws an exception")
+        void collectBatchThrowing() {
+
+            TestBatchHealthMonitor batchMonitor = new TestBatchHealthMonitor("first", "second");
+            batchMonitor.results = null;
+            healthAggregator.register(batchMonitor);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("first"), unknownResult()),
+                    new HealthTweet(defaultDependency("second"), unknownResult())
+            );
+
+            assertEquals(expectedTweets, healthAggregator.collect());
+            assertEquals(1, batchMonitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should throw exception when a dependency has the name of a registered monitor, registering none")
+        void registerBatchDuplicate() {
+
+            healthAggregator.register(new TestHealthMonitorWithDescriptor());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> healthAggregator.register(new TestBatchHealthMonitor("first", "monitor")));
+            assertEquals(1, healthAggregator.getHealthTweeters().size());
+        }
+
+        @Test
+        @DisplayName("should throw exception when the batch declares the same dependency twice")
+        void registerBatchDeclaringDuplicate() {
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> healthAggregator.register(new TestBatchHealthMonitor("first", "first")));
+        }
+    }
+
+    @Nested
+    @DisplayName("addListener(HealthTweetListener)")
+    class ListenerTest {
+
+        @Test
+        @DisplayName("should notify the first result of each monitor and every change of status or status text")
+        void notifyChanges() {
+
+            List<HealthTweet> notifiedTweets = new ArrayList<>();
+            TestHealthMonitorChanging changingMonitor = new TestHealthMonitorChanging(
+                    HealthResult.ok(),
+                    HealthResult.ok(),
+                    criticalResult(),
+                    HealthResult.of(DependencyStatus.CRITICAL, "Still critical"));
+            healthAggregator
+                    .addListener(notifiedTweets::add)
+                    .register(changingMonitor);
+
+            for (int i = 0; i < 4; i++) {
+                healthAggregator.collect();
+            }
+
+            assertEquals(Arrays.asList(
+                    new HealthTweet(defaultDependency("changingMonitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("changingMonitor"), criticalResult()),
+                    new HealthTweet(defaultDependency("changingMonitor"),
+                            HealthResult.of(DependencyStatus.CRITICAL, "Still critical"))
+            ), notifiedTweets);
+        }
+
+        @Test
+        @DisplayName("should keep notifying the other listeners when a listener throws, and stop once removed")
+        void notifyFailingListener() {
+
+            List<HealthTweet> notifiedTweets = new ArrayList<>();
+            HealthTweetListener recordingListener = notifiedTweets::add;
+            HealthTweetListener failingListener = healthTweet -> {
+                throw new IllegalStateException();
+            };
+            healthAggregator
+                    .addListener(failingListener)
+                    .addListener(recordingListener)
+                    .register(new TestHealthMonitorChanging(HealthResult.ok(), criticalResult()));
+
+            assertEquals(HealthResult.ok(), healthAggregator.collect().get(0).getResult());
+            healthAggregator.removeListener(recordingListener);
+            assertEquals(criticalResult(), healthAggregator.collect().get(0).getResult());
+
+            assertEquals(1, notifiedTweets.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("getSnapshot()")
+    class SnapshotTest {
+
+        @Test
+        @DisplayName("should increase the version only when a result changes, and return the tweets changed since")
+        void snapshot() {
+
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestHealthMonitorChanging(HealthResult.ok(), HealthResult.ok(), criticalResult()));
+            long initialVersion = healthAggregator.getVersion();
+            assertTrue(healthAggregator.getSnapshot().getTweets().isEmpty());
+
+            healthAggregator.collect();
+            HealthSnapshot firstSnapshot = healthAggregator.getSnapshot();
+            healthAggregator.collect();
+            assertEquals(firstSnapshot, healthAggregator.getSnapshot());
+            healthAggregator.collect();
+            HealthSnapshot lastSnapshot = healthAggregator.getSnapshot();
+
+            assertEquals(initialVersion + 2, firstSnapshot.getVersion());
+            assertEquals(initialVersion + 3, lastSnapshot.getVersion());
+            assertEquals(Arrays.asList(
+                    new HealthTweet(defaultDependency("monitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("changingMonitor"), criticalResult())
+            ), lastSnapshot.getTweets());
+            assertEquals(
+                    Collections.singletonList(new HealthTweet(defaultDependency("changingMonitor"), criticalResult())),
+                    lastSnapshot.getTweetsChangedSince(firstSnapshot.getVersion()));
+            assertEquals(lastSnapshot.getTweets(), lastSnapshot.getTweetsChangedSince(initialVersion));
+            assertTrue(lastSnapshot.getTweetsChangedSince(lastSnapshot.getVersion()).isEmpty());
+            assertEquals(lastSnapshot.getTweets(), lastSnapshot.getTweetsChangedSince(Long.MAX_VALUE));
+        }
+    }
+
+    @Nested
+    @DisplayName("collect(HealthMonitor) with executor")
+    class ParallelCollectTest {
+
+        private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        private final HealthAggregator parallelAggregator = new HealthAggregator(Clock.systemDefaultZone(), executor);
+
+        @AfterEach
+        void shutdownExecutor() {
+
+            executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("should aggregate results from all registered monitors in registration order")
+        void collectOk() {
+
+            parallelAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestHealthMonitorWithCriticalStatus())
+                    .register(new TestHealthMonitorThrowing());
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("monitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("failingMonitor"), criticalResult()),
+                    new HealthTweet(defaultDependency("exceptionThrowingMonitor"), unknownResult())
+            );
+
+            List<HealthTweet> actualTweets = parallelAggregator.collect();
+
+            assertEquals(expectedTweets, actualTweets);
+        }
+
+        @Test
+        @DisplayName("should invoke expired monitors concurrently")
+        void collectConcurrently() {
+
+            CountDownLatch latch = new CountDownLatch(2);
+            parallelAggregator
+                    .register(new TestHealthMonitorAwaitingFirst(latch))
+                    .register(new TestHealthMonitorAwaitingSecond(latch));
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("awaitingFirst"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("awaitingSecond"), HealthResult.ok())
+            );
+
+            List<HealthTweet> actualTweets = parallelAggregator.collect();
+
+            assertEquals(expectedTweets, actualTweets);
+        }
+
+        @Test
+        @DisplayName("should check monitors with a timeout even when tweets hold every thread of the executor")
+        void collectTimeoutSingleThread() {
+
+            ExecutorService singleThreadExecutor = Executors.newFixedThreadPool(1);
+            try {
+                HealthAggregator singleThreadAggregator = new HealthAggregator(Clock.systemDefaultZone(),
+                        singleThreadExecutor)
+                        .register(new TestHealthMonitorWithTimeoutFirst())
+                        .register(new TestHealthMonitorWithTimeoutSecond());
+
+                List<HealthTweet> expectedTweets = Arrays.asList(
+                        new HealthTweet(defaultDependency("timeoutFirst"), HealthResult.ok()),
+                        new HealthTweet(defaultDependency("timeoutSecond"), HealthResult.ok())
+                );
+
+                assertEquals(expectedTweets, singleThreadAggregator.collect());
+            }
+            finally {
+                singleThreadExecutor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("collect(HealthMonitor) when results are cached")
+    class CollectCachedTest {
+
+        private static final int WARM_UP_CALLS = 20_000;
+
+        private static final int MEASURED_CALLS = 10_000;
+
+        private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        @AfterEach
+        void shutdownExecutor() {
+
+            executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("should return the same list as long as the same tweets are collected")
+        void collectSameList() {
+
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestHealthMonitorChanging(HealthResult.ok(), criticalResult()));
+
+            List<HealthTweet> first = healthAggregator.collect();
+            List<HealthTweet> second = healthAggregator.collect();
+            List<HealthTweet> third = healthAggregator.collect();
+
+            assertNotSame(first, second);
+            assertSame(second.get(0), third.get(0));
+            assertEquals(criticalResult(), third.get(1).getResult());
+            assertThrows(UnsupportedOperationException.class, () -> third.add(first.get(0)));
+        }
+
+        @Test
+        @DisplayName("should not allocate when collecting cached results")
+        void collectWithoutAllocation() {
+
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestHealthMonitorWithCriticalStatus());
+            // the first tweets are the ones produced by the monitors, then their cached copies are collected
+            healthAggregator.collect();
+            List<HealthTweet> cachedTweets = healthAggregator.collect();
+
+            assertSame(cachedTweets, healthAggregator.collect());
+            assertAllocationFree(healthAggregator::collect);
+        }
+
+        @Test
+        @DisplayName("should not allocate when collecting cached results with executor")
+        void collectWithoutAllocationWithExecutor() {
+
+            HealthAggregator parallelAggregator = new HealthAggregator(Clock.systemDefaultZone(), executor)
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestHealthMonitorWithCriticalStatus());
+            // the first tweets are the ones produced by the monitors, then their cached copies are collected
+            parallelAggregator.collect();
+            List<HealthTweet> cachedTweets = parallelAggregator.collect();
+
+            assertSame(cachedTweets, parallelAggregator.collect());
+            assertAllocationFree(parallelAggregator::collect);
+        }
+
+        /**
+         * Fails if the given call allocates any memory on average, once compiled by the JIT compiler
+         */
+        private void assertAllocationFree(Runnable call) {
+
+            java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+            com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported()
+                    && allocationMXBean.isThreadAllocatedMemoryEnabled());
+            long threadId = Thread.currentThread().getId();
+
+            for (int i = 0; i < WARM_UP_CALLS; i++) {
+                call.run();
+            }
+            long allocatedBytesBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                call.run();
+            }
+            long allocatedBytes = allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+
+            assertTrue(allocatedBytes / MEASURED_CALLS == 0,
+                    String.format("%d bytes allocated by %d calls", allocatedBytes, MEASURED_CALLS));
+        }
+    }
+
+    @Nested
+    @DisplayName("collect(HealthMonitor) with prerequisites")
+    class DependsOnTest {
+
+        private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        @AfterEach
+        void shutdownExecutor() {
+
+            executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("should throw exception when a prerequisite is not registered first")
+        void registerPrerequisiteMissing() {
+
+            TestDependentMonitor dependent = new TestDependentMonitor(new TestPrerequisiteMonitor(HealthResult.ok()));
+
+            assertThrows(IllegalArgumentException.class, () -> healthAggregator.register(dependent));
+        }
+
+        @Test
+        @DisplayName("should invoke dependents when prerequisites are healthy")
+        void collectPrerequisiteHealthy() {
+
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(HealthResult.ok());
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            healthAggregator.register(prerequisite).register(dependent);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("vpn"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("apiBehindVpn"), HealthResult.ok())
+            );
+
+            assertEquals(expectedTweets, healthAggregator.collect());
+            assertEquals(1, dependent.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should skip dependents, direct or not, and report them as unknown when a prerequisite is critical")
+        void collectPrerequisiteCritical() {
+
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(criticalResult());
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            TestDependentMonitor transitiveDependent = new TestTransitiveDependentMonitor(prerequisite);
+            healthAggregator.register(prerequisite).register(dependent).register(transitiveDependent);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("vpn"), criticalResult()),
+                    new HealthTweet(defaultDependency("apiBehindVpn"), skippedResult("vpn")),
+                    new HealthTweet(defaultDependency("apiBehindApi"), skippedResult("apiBehindVpn"))
+            );
+
+            assertEquals(expectedTweets, healthAggregator.collect());
+            assertEquals(0, dependent.invocations.get());
+            assertEquals(0, transitiveDependent.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should invoke dependents when a prerequisite reports unknown status, whatever its text")
+        void collectPrerequisiteUnknown() {
+
+            HealthResult unknownResult = skippedResult("dns");
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(unknownResult);
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            TestDependentMonitor transitiveDependent = new TestTransitiveDependentMonitor(prerequisite);
+            healthAggregator.register(prerequisite).register(dependent).register(transitiveDependent);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("vpn"), unknownResult),
+                    new HealthTweet(defaultDependency("apiBehindVpn"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("apiBehindApi"), HealthResult.ok())
+            );
+
+            assertEquals(expectedTweets, healthAggregator.collect());
+            assertEquals(1, dependent.invocations.get());
+            assertEquals(1, transitiveDependent.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should invoke dependents in parallel only after their prerequisites complete")
+        void collectParallelInTopologicalOrder() {
+
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(HealthResult.ok());
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            TestDependentMonitor transitiveDependent = new TestTransitiveDependentMonitor(prerequisite);
+            HealthAggregator parallelAggregator = new HealthAggregator(Clock.systemDefaultZone(), executor)
+                    .register(prerequisite)
+                    .register(dependent)
+                    .register(transitiveDependent);
+
+            parallelAggregator.collect();
+
+            assertEquals(1, dependent.invocations.get());
+            assertEquals(1, transitiveDependent.invocations.get());
+            assertFalse(dependent.invokedBeforePrerequisite);
+        }
+
+        @Test
+        @DisplayName("should skip dependents in parallel when a prerequisite is critical")
+        void collectParallelPrerequisiteCritical() {
+
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(criticalResult());
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            HealthAggregator parallelAggregator = new HealthAggregator(Clock.systemDefaultZone(), executor)
+                    .register(prerequisite)
+                    .register(dependent);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("vpn"), criticalResult()),
+                    new HealthTweet(defaultDependency("apiBehindVpn"), skippedResult("vpn"))
+            );
+
+            assertEquals(expectedTweets, parallelAggregator.collect());
+            assertEquals(0, dependent.invocations.get());
+        }
+
+        private HealthResult skippedResult(String prerequisite) {
+
+            return HealthResult.of(DependencyStatus.UNKNOWN,
+                    String.format(HealthAggregator.PREREQUISITE_FAILED_ERRMSG, prerequisite));
+        }
+    }
+
+    @Nested
+    @DisplayName("collectAsync()")
+    class CollectAsyncTest {
+
+        @Test
+        @DisplayName("should complete once all async monitors complete, in registration order")
+        void collectAsync() {
+
+            TestAsyncHealthMonitor asyncMonitor = new TestAsyncHealthMonitor();
+            healthAggregator
+                    .register(asyncMonitor)
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestHealthMonitorThrowing());
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("asyncMonitor"), criticalResult()),
+                    new HealthTweet(defaultDependency("monitor"), HealthResult.ok()),
+                    new HealthTweet(defaultDependency("exceptionThrowingMonitor"), unknownResult())
+            );
+
+            CompletableFuture<List<HealthTweet>> futureTweets = healthAggregator.collectAsync();
+            assertFalse(futureTweets.isDone());
+
+            asyncMonitor.futureResult.complete(criticalResult());
+            assertEquals(expectedTweets, futureTweets.join());
+        }
+
+        @Test
+        @DisplayName("should report unknown status when an async monitor completes exceptionally")
+        void collectAsyncFailing() {
+
+            TestAsyncHealthMonitor asyncMonitor = new TestAsyncHealthMonitor();
+            healthAggregator.register(asyncMonitor);
+
+            CompletableFuture<List<HealthTweet>> futureTweets = healthAggregator.collectAsync();
+            asyncMonitor.futureResult.completeExceptionally(new RuntimeException());
+
+            assertEquals(
+                    Collections.singletonList(new HealthTweet(defaultDependency("asyncMonitor"), unknownResult())),
+                    futureTweets.join());
+        }
+    }
+
+    @Nested
+    @DisplayName("hasReported(DependencyImportance)")
+    class HasReportedTest {
+
+        @Test
+        @DisplayName("should be false until every monitor of such importance is invoked")
+        void hasReported() {
+
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .register(new TestSecondaryHealthMonitor());
+
+            assertFalse(healthAggregator.hasReported(DependencyImportance.PRIMARY));
+            assertFalse(healthAggregator.hasReported(DependencyImportance.SECONDARY));
+
+            healthAggregator.collect();
+
+            assertTrue(healthAggregator.hasReported(DependencyImportance.PRIMARY));
+            assertTrue(healthAggregator.hasReported(DependencyImportance.SECONDARY));
+        }
+
+        @Test
+        @DisplayName("should only consider monitors of such importance")
+        void hasReportedOtherImportance() {
+
+            healthAggregator.register(new TestSecondaryHealthMonitor());
+
+            assertTrue(healthAggregator.hasReported(DependencyImportance.PRIMARY));
+            assertFalse(healthAggregator.hasReported(DependencyImportance.SECONDARY));
+        }
+
+        @Test
+        @DisplayName("should consider monitors throwing an exception, or skipped after a failed prerequisite, as reported")
+        void hasReportedFailing() {
+
+            TestPrerequisiteMonitor prerequisite = new TestPrerequisiteMonitor(criticalResult());
+            TestDependentMonitor dependent = new TestDependentMonitor(prerequisite);
+            healthAggregator
+                    .register(prerequisite)
+                    .register(dependent)
+                    .register(new TestHealthMonitorThrowing());
+
+            healthAggregator.collect();
+
+            assertEquals(0, dependent.invocations.get());
+            assertTrue(healthAggregator.hasReported(DependencyImportance.PRIMARY));
+        }
+    }
+
+    @Nested
+    @DisplayName("collect(HealthMonitor) when refreshing in background")
+    class RefreshInBackgroundTest {
+
+        private final RefreshScheduler refreshScheduler = new RefreshScheduler(Runnable::run, 5, 8);
+
+        @AfterEach
+        void closeScheduler() {
+
+            refreshScheduler.close();
+        }
+
+        @Test
+        @DisplayName("should report unknown status before the first refresh")
+        void collectBeforeRefresh() {
+
+            refreshScheduler.close();
+            healthAggregator
+                    .register(new TestHealthMonitorWithDescriptor())
+                    .refreshInBackground(refreshScheduler);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("monitor"),
+                            HealthResult.of(DependencyStatus.UNKNOWN, NOT_COMPUTED_YET_ERRMSG))
+            );
+
+            assertEquals(expectedTweets, healthAggregator.collect());
+        }
+
+        @Test
+        @DisplayName("should invoke monitors registered before and after enabling refresh on the scheduler thread")
+        void collectRefreshed() throws InterruptedException {
+
+            TestHealthMonitorRecordingThread recordingMonitor = new TestHealthMonitorRecordingThread();
+            healthAggregator
+                    .register(new TestHealthMonitorThrowing())
+                    .refreshInBackground(refreshScheduler)
+                    .register(recordingMonitor);
+
+            List<HealthTweet> expectedTweets = Arrays.asList(
+                    new HealthTweet(defaultDependency("exceptionThrowingMonitor"), unknownResult()),
+                    new HealthTweet(defaultDependency("recordingMonitor"), HealthResult.ok())
+            );
+
+            assertEquals(expectedTweets, awaitCollect(expectedTweets));
+            assertNotEquals(Thread.currentThread(), recordingMonitor.invokingThread);
+        }
+
+        /**
+         * Collects until the expected tweets are returned, or gives up after a few seconds
+         */
+        private List<HealthTweet> awaitCollect(List<HealthTweet> expectedTweets) throws InterruptedException {
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            List<HealthTweet> actualTweets = healthAggregator.collect();
+            while (!expectedTweets.equals(actualTweets) && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5);
+                actualTweets = healthAggregator.collect();
+            }
+            return actualTweets;
+        }
+
+        @Test
+        @DisplayName("should throw exception when enabling refresh twice")
+        void refreshInBackgroundTwice() {
+
+            healthAggregator.refreshInBackground(refreshScheduler);
+
+            assertThrows(IllegalStateException.class, () -> healthAggregator.refreshInBackground(refreshScheduler));
+        }
+    }
+
     /**
      * returns a {@link Dependency} with the default values of {@link HealthTweetDescriptor}
      */
@@ -132,6 +912,19 @@ class HealthAggregatorTest {
         }
     }
 
+    @HealthTweetDescriptor(name = "secondaryMonitor", importance = DependencyImportance.SECONDARY)
+    private static class TestSecondaryHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            return HealthResult.ok();
+        }
+    }
+
     @HealthTweetDescriptor(name = "failingMonitor")
     private static class TestHealthMonitorWithCriticalStatus implements HealthMonitor {
 
@@ -152,4 +945,230 @@ class HealthAggregatorTest {
         }
     }
 
+    @HealthTweetDescriptor(name = "vpn")
+    private static class TestPrerequisiteMonitor implements HealthMonitor {
+
+        private final HealthResult result;
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private TestPrerequisiteMonitor(HealthResult result) {
+
+            this.result = result;
+        }
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            return result;
+        }
+    }
+
+    @HealthTweetDescriptor(name = "apiBehindVpn", dependsOn = "vpn")
+    private static class TestDependentMonitor implements HealthMonitor {
+
+        private final TestPrerequisiteMonitor prerequisite;
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private volatile boolean invokedBeforePrerequisite;
+
+        private TestDependentMonitor(TestPrerequisiteMonitor prerequisite) {
+
+            this.prerequisite = prerequisite;
+        }
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            invokedBeforePrerequisite |= prerequisite.invocations.get() == 0;
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "apiBehindApi", dependsOn = "apiBehindVpn")
+    private static class TestTransitiveDependentMonitor extends TestDependentMonitor {
+
+        private TestTransitiveDependentMonitor(TestPrerequisiteMonitor prerequisite) {
+
+            super(prerequisite);
+        }
+    }
+
+    /**
+     * Never caches, and returns the given results in turn, repeating the last one
+     */
+    @HealthTweetDescriptor(name = "changingMonitor", secondsToLive = -1)
+    private static class TestHealthMonitorChanging implements HealthMonitor {
+
+        private final List<HealthResult> results;
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        TestHealthMonitorChanging(HealthResult... results) {
+
+            this.results = Arrays.asList(results);
+        }
+
+        @Override
+        public HealthResult check() {
+
+            return results.get(Math.min(invocations.getAndIncrement(), results.size() - 1));
+        }
+    }
+
+    @HealthTweetDescriptor(name = "batchMonitor")
+    private static class TestBatchHealthMonitor implements BatchHealthMonitor {
+
+        private final List<Dependency> dependencies;
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private Map<String, HealthResult> results = new HashMap<>();
+
+        TestBatchHealthMonitor(String... dependencyNames) {
+
+            this.dependencies = Arrays.stream(dependencyNames)
+                    .map(HealthAggregatorTest::defaultDependency)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<Dependency> dependencies() {
+
+            return dependencies;
+        }
+
+        @Override
+        public Map<String, HealthResult> check() {
+
+            invocations.incrementAndGet();
+            if (results == null) {
+                throw new RuntimeException();
+            }
+            return results;
+        }
+    }
+
+    @HealthTweetDescriptor(name = "jitteredBatchMonitor", secondsToLive = 3600, jitterPercent = 100)
+    private static class TestJitteredBatchHealthMonitor extends TestBatchHealthMonitor {
+
+        TestJitteredBatchHealthMonitor(String... dependencyNames) {
+
+            super(dependencyNames);
+        }
+    }
+
+    @HealthTweetDescriptor(name = "blockingBatchMonitor")
+    private static class TestBlockingBatchHealthMonitor extends TestBatchHealthMonitor {
+
+        private final CountDownLatch invoked = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        TestBlockingBatchHealthMonitor(String... dependencyNames) {
+
+            super(dependencyNames);
+        }
+
+        @Override
+        public Map<String, HealthResult> check() {
+
+            invoked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.check();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "asyncMonitor")
+    private static class TestAsyncHealthMonitor implements AsyncHealthMonitor {
+
+        private final CompletableFuture<HealthResult> futureResult = new CompletableFuture<>();
+
+        @Override
+        public CompletableFuture<HealthResult> checkAsync() {
+
+            return futureResult;
+        }
+    }
+
+    @HealthTweetDescriptor(name = "recordingMonitor")
+    private static class TestHealthMonitorRecordingThread implements HealthMonitor {
+
+        private volatile Thread invokingThread;
+
+        @Override
+        public HealthResult check() {
+
+            invokingThread = Thread.currentThread();
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "timeoutFirst", timeoutMillis = 1000)
+    private static class TestHealthMonitorWithTimeoutFirst implements HealthMonitor {
+
+        @Override
+        public HealthResult check() {
+
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "timeoutSecond", timeoutMillis = 1000)
+    private static class TestHealthMonitorWithTimeoutSecond extends TestHealthMonitorWithTimeoutFirst {
+
+    }
+
+    /**
+     * Reports healthy only if all the monitors sharing the latch are invoked at the same time
+     */
+    private abstract static class TestHealthMonitorAwaiting implements HealthMonitor {
+
+        private final CountDownLatch latch;
+
+        TestHealthMonitorAwaiting(CountDownLatch latch) {
+
+            this.latch = latch;
+        }
+
+        @Override
+        public HealthResult check() {
+
+            latch.countDown();
+            try {
+                return latch.await(5, TimeUnit.SECONDS) ? HealthResult.ok() : criticalResult();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return criticalResult();
+            }
+        }
+    }
+
+    @HealthTweetDescriptor(name = "awaitingFirst")
+    private static class TestHealthMonitorAwaitingFirst extends TestHealthMonitorAwaiting {
+
+        TestHealthMonitorAwaitingFirst(CountDownLatch latch) {
+
+            super(latch);
+        }
+    }
+
+    @HealthTweetDescriptor(name = "awaitingSecond")
+    private static class TestHealthMonitorAwaitingSecond extends TestHealthMonitorAwaiting {
+
+        TestHealthMonitorAwaitingSecond(CountDownLatch latch) {
+
+            super(latch);
+        }
+    }
+
 }
\ No newline at end of file
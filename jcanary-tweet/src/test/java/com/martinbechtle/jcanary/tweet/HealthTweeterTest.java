@@ -1,12 +1,30 @@
 package com.martinbechtle.jcanary.tweet;
 
+import com.martinbechtle.jcanary.api.AsyncHealthMonitor;
+import com.martinbechtle.jcanary.api.DependencyStatus;
 import com.martinbechtle.jcanary.api.HealthMonitor;
 import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -62,6 +80,603 @@ class HealthTweeterTest {
         }
     }
 
+    @Nested
+    @DisplayName("tweet() metadata")
+    class Metadata {
+
+        @Test
+        @DisplayName("should record when the check started and how long it took, and flag tweets served from cache")
+        void tweetMetadata() {
+
+            Clock clock = mock(Clock.class);
+            when(clock.millis()).thenReturn(1000L);
+            HealthTweeter healthTweeter = new HealthTweeter(new CachingHealthMonitor(), clock);
+
+            HealthTweet freshTweet = healthTweeter.tweet();
+            HealthTweet cachedTweet = healthTweeter.tweet();
+
+            assertFalse(freshTweet.isCached());
+            assertEquals(1000L, freshTweet.getCheckedAtMillis());
+            assertTrue(freshTweet.getDurationNanos() >= 0);
+            assertTrue(cachedTweet.isCached());
+            assertEquals(1000L, cachedTweet.getCheckedAtMillis());
+            assertEquals(freshTweet.getDurationNanos(), cachedTweet.getDurationNanos());
+            assertEquals(freshTweet, cachedTweet);
+            assertEquals(1, healthTweeter.getLatencyHistogram().getCount());
+        }
+
+        @Test
+        @DisplayName("should count checks that throw an exception or do not report a healthy status as failures")
+        void tweetFailureCount() {
+
+            HealthTweeter healthTweeter = new HealthTweeter(new DegradingHealthMonitor(), Clock.systemUTC());
+
+            healthTweeter.tweet();
+            assertEquals(0, healthTweeter.getFailureCount());
+            healthTweeter.tweet();
+            assertEquals(1, healthTweeter.getFailureCount());
+            assertThrows(IllegalStateException.class, healthTweeter::tweet);
+            assertEquals(2, healthTweeter.getFailureCount());
+            assertEquals(3, healthTweeter.getLatencyHistogram().getCount());
+        }
+
+        @Test
+        @DisplayName("should record the outcome of every check, but not of tweets served from cache, in the status history")
+        void tweetStatusHistory() {
+
+            Clock clock = mock(Clock.class);
+            when(clock.millis()).thenReturn(1000L);
+            HealthTweeter healthTweeter = new HealthTweeter(new CachingHealthMonitor(), clock);
+            healthTweeter.tweet();
+            healthTweeter.tweet();
+            when(clock.millis()).thenReturn(200000L);
+            healthTweeter.tweet();
+
+            StatusHistory statusHistory = healthTweeter.getStatusHistory();
+            long[] checkedAtMillis = new long[statusHistory.getCapacity()];
+            DependencyStatus[] statuses = new DependencyStatus[statusHistory.getCapacity()];
+            long[] durationNanos = new long[statusHistory.getCapacity()];
+
+            assertEquals(2, statusHistory.copyTo(checkedAtMillis, statuses, durationNanos));
+            assertEquals(1000L, checkedAtMillis[0]);
+            assertEquals(200000L, checkedAtMillis[1]);
+            assertEquals(DependencyStatus.HEALTHY, statuses[1]);
+        }
+    }
+
+    @Nested
+    @DisplayName("tweet() with secondsStaleWhileRevalidate")
+    class StaleWhileRevalidate {
+
+        private final CountingHealthMonitor monitor = new CountingHealthMonitor();
+
+        private final Clock clock = mock(Clock.class);
+
+        private final List<Runnable> revalidations = new ArrayList<>();
+
+        private final HealthTweeter healthTweeter = new HealthTweeter(monitor, clock, revalidations::add);
+
+        @Test
+        @DisplayName("should return the expired tweet straight away and re-check asynchronously during the grace period")
+        void tweetStale() {
+
+            when(clock.millis()).thenReturn(0L);
+            HealthTweet staleTweet = healthTweeter.tweet();
+
+            when(clock.millis()).thenReturn(105000L);
+            assertEquals(staleTweet, healthTweeter.tweet());
+            assertEquals(staleTweet, healthTweeter.tweet());
+            assertEquals(1, revalidations.size());
+            assertEquals(1, monitor.invocations.get());
+
+            revalidations.get(0).run();
+            assertEquals(2, monitor.invocations.get());
+            assertEquals(CountingHealthMonitor.result(2), healthTweeter.tweet().getResult());
+        }
+
+        @Test
+        @DisplayName("should re-check synchronously once the grace period has passed")
+        void tweetGracePeriodExpired() {
+
+            when(clock.millis()).thenReturn(0L);
+            healthTweeter.tweet();
+
+            when(clock.millis()).thenReturn(200000L);
+            assertEquals(CountingHealthMonitor.result(2), healthTweeter.tweet().getResult());
+            assertTrue(revalidations.isEmpty());
+        }
+
+        @Test
+        @DisplayName("should re-check synchronously when the executor rejects the asynchronous re-check")
+        void tweetStaleRejected() {
+
+            HealthTweeter rejectingTweeter = new HealthTweeter(monitor, clock, task -> {
+                throw new RejectedExecutionException();
+            });
+            when(clock.millis()).thenReturn(0L);
+            rejectingTweeter.tweet();
+
+            when(clock.millis()).thenReturn(105000L);
+            assertEquals(CountingHealthMonitor.result(2), rejectingTweeter.tweet().getResult());
+        }
+    }
+
+    @Nested
+    @DisplayName("tweet() with adaptive time to live")
+    class AdaptiveTimeToLiveTweet {
+
+        private final FlappingHealthMonitor monitor = new FlappingHealthMonitor();
+
+        private final Clock clock = mock(Clock.class);
+
+        private final HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+
+        @Test
+        @DisplayName("should double the time to live at every healthy result, up to maxSecondsToLive")
+        void tweetHealthy() {
+
+            long checkedAt = 0;
+            for (long expected : new long[]{ 10000L, 20000L, 40000L, 40000L }) {
+                when(clock.millis()).thenReturn(checkedAt);
+                healthTweeter.tweet();
+                assertEquals(expected, healthTweeter.getTimeToLiveInMillis());
+
+                when(clock.millis()).thenReturn(checkedAt + expected - 1);
+                healthTweeter.tweet();
+                checkedAt += expected;
+            }
+            assertEquals(4, monitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should shrink the time to live to minSecondsToLive when not healthy, and restart from secondsToLive once healthy again")
+        void tweetNotHealthy() {
+
+            when(clock.millis()).thenReturn(0L);
+            healthTweeter.tweet();
+            when(clock.millis()).thenReturn(10000L);
+            healthTweeter.tweet();
+            assertEquals(20000L, healthTweeter.getTimeToLiveInMillis());
+
+            monitor.status = DependencyStatus.DEGRADED;
+            when(clock.millis()).thenReturn(30000L);
+            healthTweeter.tweet();
+            assertEquals(2000L, healthTweeter.getTimeToLiveInMillis());
+
+            monitor.status = DependencyStatus.HEALTHY;
+            when(clock.millis()).thenReturn(32000L);
+            healthTweeter.tweet();
+            assertEquals(10000L, healthTweeter.getTimeToLiveInMillis());
+            assertEquals(4, monitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should add up to jitterPercent of random jitter to the time to live")
+        void tweetJitter() {
+
+            HealthTweeter jitteringTweeter = new HealthTweeter(new JitteringHealthMonitor(), clock);
+            Set<Long> timesToLive = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                when(clock.millis()).thenReturn(i * 100000L);
+                jitteringTweeter.tweet();
+                long timeToLive = jitteringTweeter.getTimeToLiveInMillis();
+                assertTrue(timeToLive >= 10000L && timeToLive <= 15000L, "time to live " + timeToLive);
+                timesToLive.add(timeToLive);
+            }
+            assertTrue(timesToLive.size() > 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("tweet() with shared results")
+    class SharedResults {
+
+        private final Path file = createTempFile();
+
+        private final List<SharedStatusTable> tables = new ArrayList<>();
+
+        private final SharedHealthMonitor monitor = new SharedHealthMonitor();
+
+        private final Clock clock = mock(Clock.class);
+
+        @AfterEach
+        void close() throws IOException {
+
+            tables.forEach(SharedStatusTable::close);
+            Files.deleteIfExists(file);
+        }
+
+        /**
+         * @return a tweeter with its own table, as if in another process
+         */
+        private HealthTweeter sharingTweeter() {
+
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, clock, Runnable::run);
+            healthTweeter.shareResults(openTable());
+            return healthTweeter;
+        }
+
+        private SharedStatusTable openTable() {
+
+            SharedStatusTable table = new SharedStatusTable(file);
+            tables.add(table);
+            return table;
+        }
+
+        @Test
+        @DisplayName("should use the result checked by another process until it expires, then check again")
+        void tweetShared() {
+
+            HealthTweeter healthTweeter = sharingTweeter();
+            HealthTweeter otherTweeter = sharingTweeter();
+
+            when(clock.millis()).thenReturn(0L);
+            HealthTweet healthTweet = healthTweeter.tweet();
+            when(clock.millis()).thenReturn(50000L);
+            HealthTweet sharedTweet = otherTweeter.tweet();
+
+            assertEquals(1, monitor.invocations.get());
+            assertEquals(healthTweet, sharedTweet);
+            assertEquals(0L, sharedTweet.getCheckedAtMillis());
+            assertTrue(sharedTweet.isCached());
+            assertEquals(0, otherTweeter.getLatencyHistogram().getCount());
+
+            when(clock.millis()).thenReturn(100000L);
+            assertEquals(SharedHealthMonitor.result(2), otherTweeter.tweet().getResult());
+            assertEquals(SharedHealthMonitor.result(2), healthTweeter.tweet().getResult());
+            assertEquals(2, monitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should return the previous shared result while another process holds the lease")
+        void tweetLeaseBusy() {
+
+            HealthTweeter healthTweeter = sharingTweeter();
+            HealthTweeter otherTweeter = sharingTweeter();
+            SharedStatusTable.Slot slot = openTable().slotOf(healthTweeter.getDependency());
+
+            when(clock.millis()).thenReturn(0L);
+            healthTweeter.tweet();
+
+            FileLock lease = slot.tryLease();
+            when(clock.millis()).thenReturn(110000L);
+            assertEquals(SharedHealthMonitor.result(1), otherTweeter.tweet().getResult());
+            assertEquals(HealthTweeter.LEASE_BUSY_RETRY_MILLIS, otherTweeter.getTimeToLiveInMillis());
+            assertEquals(1, monitor.invocations.get());
+
+            slot.release(lease);
+            when(clock.millis()).thenReturn(110000L + HealthTweeter.LEASE_BUSY_RETRY_MILLIS);
+            assertEquals(SharedHealthMonitor.result(2), otherTweeter.tweet().getResult());
+        }
+
+        @Test
+        @DisplayName("should invoke monitor only once when many processes find the shared result expired at once")
+        void tweetConcurrently() throws Exception {
+
+            List<HealthTweeter> healthTweeters = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                healthTweeters.add(sharingTweeter());
+            }
+            when(clock.millis()).thenReturn(0L);
+            healthTweeters.forEach(HealthTweeter::tweet);
+            assertEquals(1, monitor.invocations.get());
+
+            when(clock.millis()).thenReturn(200000L);
+            ExecutorService executor = Executors.newFixedThreadPool(healthTweeters.size());
+            try {
+                List<Future<HealthTweet>> futureTweets = new ArrayList<>();
+                healthTweeters.forEach(healthTweeter -> futureTweets.add(executor.submit(healthTweeter::tweet)));
+                for (Future<HealthTweet> futureTweet : futureTweets) {
+                    futureTweet.get(5, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+            assertEquals(2, monitor.invocations.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("tweet() with timeoutMillis")
+    class Timeout {
+
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+
+        private final HangingHealthMonitor monitor = new HangingHealthMonitor();
+
+        private final Clock clock = mock(Clock.class);
+
+        private final HealthTweeter healthTweeter = new HealthTweeter(monitor, clock, executor, executor);
+
+        @AfterEach
+        void shutdownExecutor() {
+
+            executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("should report critical status and interrupt the monitor when it takes too long")
+        void tweetTimeout() throws InterruptedException {
+
+            when(clock.millis()).thenReturn(0L);
+
+            HealthTweet healthTweet = healthTweeter.tweet();
+
+            assertEquals(DependencyStatus.CRITICAL, healthTweet.getResult().getStatus());
+            assertEquals("Check timed out after 50 milliseconds", healthTweet.getResult().getStatusText());
+            assertTrue(monitor.interrupted.await(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        @DisplayName("should not invoke the monitor after repeated timeouts until the circuit breaker is closed again")
+        void tweetCircuitOpen() {
+
+            when(clock.millis()).thenReturn(0L);
+            healthTweeter.tweet();
+            healthTweeter.tweet();
+
+            HealthTweet healthTweet = healthTweeter.tweet();
+
+            assertEquals(DependencyStatus.CRITICAL, healthTweet.getResult().getStatus());
+            assertEquals("Not checked after repeated timeouts, next check in 60 seconds",
+                    healthTweet.getResult().getStatusText());
+            assertEquals(2, monitor.invocations.get());
+
+            when(clock.millis()).thenReturn(60000L);
+            healthTweeter.tweet();
+
+            assertEquals(3, monitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should report unknown status without invoking the monitor when the executor rejects the check")
+        void tweetTimeoutRejected() {
+
+            HealthTweeter rejectingTweeter = new HealthTweeter(monitor, clock, executor, task -> {
+                throw new RejectedExecutionException();
+            });
+            when(clock.millis()).thenReturn(0L);
+
+            HealthTweet healthTweet = rejectingTweeter.tweet();
+            rejectingTweeter.tweet();
+
+            assertEquals(DependencyStatus.UNKNOWN, healthTweet.getResult().getStatus());
+            assertEquals(HealthTweeter.EXECUTOR_SATURATED_ERRMSG, healthTweet.getResult().getStatusText());
+            assertEquals(0, monitor.invocations.get());
+            assertEquals("Not checked after repeated timeouts, next check in 60 seconds",
+                    rejectingTweeter.tweet().getResult().getStatusText());
+        }
+
+        @Test
+        @DisplayName("should report unknown status rather than a timeout when hung checks hold every thread of the pool")
+        void tweetTimeoutSaturated() {
+
+            ExecutorService timeoutExecutor = CheckExecutors.newPlatformThreadExecutor(1);
+            UninterruptibleHealthMonitor hungMonitor = new UninterruptibleHealthMonitor();
+            UninterruptibleHealthMonitor healthyMonitor = new UninterruptibleHealthMonitor();
+            healthyMonitor.release.countDown();
+            when(clock.millis()).thenReturn(0L);
+            try {
+                HealthTweet hungTweet = new HealthTweeter(hungMonitor, clock, executor, timeoutExecutor).tweet();
+                HealthTweet healthTweet = new HealthTweeter(healthyMonitor, clock, executor, timeoutExecutor).tweet();
+
+                assertEquals(DependencyStatus.CRITICAL, hungTweet.getResult().getStatus());
+                assertEquals(DependencyStatus.UNKNOWN, healthTweet.getResult().getStatus());
+                assertEquals(HealthTweeter.EXECUTOR_SATURATED_ERRMSG, healthTweet.getResult().getStatusText());
+                assertEquals(0, healthyMonitor.invocations.get());
+            }
+            finally {
+                hungMonitor.release.countDown();
+                timeoutExecutor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("tweetAsync()")
+    class TweetAsync {
+
+        private final Clock clock = mock(Clock.class);
+
+        @Test
+        @DisplayName("should complete when the async monitor completes, invoking it once for concurrent callers")
+        void tweetAsyncMonitor() {
+
+            PendingHealthMonitor monitor = new PendingHealthMonitor();
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+            when(clock.millis()).thenReturn(0L);
+
+            CompletableFuture<HealthTweet> first = healthTweeter.tweetAsync();
+            CompletableFuture<HealthTweet> second = healthTweeter.tweetAsync();
+            assertFalse(first.isDone());
+            assertSame(first, second);
+            assertEquals(1, monitor.futureResults.size());
+
+            monitor.futureResults.get(0).complete(HealthResult.ok());
+            assertEquals(HealthResult.ok(), first.join().getResult());
+            assertTrue(healthTweeter.tweetAsync().join().isCached());
+            assertEquals(1, monitor.futureResults.size());
+        }
+
+        @Test
+        @DisplayName("should return the previous tweet while the expired async monitor is pending")
+        void tweetAsyncMonitorExpired() {
+
+            PendingHealthMonitor monitor = new PendingHealthMonitor();
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+            when(clock.millis()).thenReturn(0L);
+            CompletableFuture<HealthTweet> first = healthTweeter.tweetAsync();
+            monitor.futureResults.get(0).complete(HealthResult.ok());
+
+            when(clock.millis()).thenReturn(200000L);
+            CompletableFuture<HealthTweet> expired = healthTweeter.tweetAsync();
+            assertFalse(expired.isDone());
+            assertEquals(first.join(), healthTweeter.tweetAsync().join());
+
+            monitor.futureResults.get(1).complete(HealthResult.of(DependencyStatus.DEGRADED, "slow"));
+            assertEquals(DependencyStatus.DEGRADED, expired.join().getResult().getStatus());
+            assertEquals(1, healthTweeter.getFailureCount());
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally when the async monitor fails, and invoke it again on the next call")
+        void tweetAsyncMonitorFailing() {
+
+            PendingHealthMonitor monitor = new PendingHealthMonitor();
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+            when(clock.millis()).thenReturn(0L);
+
+            CompletableFuture<HealthTweet> failed = healthTweeter.tweetAsync();
+            monitor.futureResults.get(0).completeExceptionally(new IllegalStateException("down"));
+
+            assertTrue(failed.isCompletedExceptionally());
+            assertEquals(1, healthTweeter.getFailureCount());
+            healthTweeter.tweetAsync();
+            assertEquals(2, monitor.futureResults.size());
+        }
+
+        @Test
+        @DisplayName("should invoke a synchronous monitor on the executor")
+        void tweetAsyncSyncMonitor() {
+
+            List<Runnable> tasks = new ArrayList<>();
+            HealthTweeter healthTweeter = new HealthTweeter(new CachingHealthMonitor(), clock, tasks::add);
+            when(clock.millis()).thenReturn(0L);
+
+            CompletableFuture<HealthTweet> futureTweet = healthTweeter.tweetAsync();
+            assertFalse(futureTweet.isDone());
+
+            tasks.get(0).run();
+            assertEquals(HealthResult.ok(), futureTweet.join().getResult());
+        }
+
+        @Test
+        @DisplayName("should wait for the pending async check when tweeting synchronously, rather than invoking it again")
+        void tweetSyncPendingAsyncMonitor() {
+
+            PendingHealthMonitor monitor = new PendingHealthMonitor();
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+            when(clock.millis()).thenReturn(0L);
+            CompletableFuture<HealthTweet> futureTweet = healthTweeter.tweetAsync();
+
+            CompletableFuture<HealthTweet> syncTweet = CompletableFuture.supplyAsync(healthTweeter::tweet);
+            while (futureTweet.getNumberOfDependents() == 0) {
+                // the synchronous caller is not waiting for the pending check yet
+                Thread.yield();
+            }
+            monitor.futureResults.get(0).complete(HealthResult.ok());
+
+            assertSame(futureTweet.join(), syncTweet.join());
+            assertEquals(1, monitor.futureResults.size());
+        }
+
+        @Test
+        @DisplayName("should block on the async monitor when tweeting synchronously")
+        void tweetSyncAsyncMonitor() {
+
+            HealthTweeter healthTweeter = new HealthTweeter(new CompletedHealthMonitor(), clock);
+            when(clock.millis()).thenReturn(0L);
+
+            assertEquals(HealthResult.ok(), healthTweeter.tweet().getResult());
+        }
+    }
+
+    @Nested
+    @DisplayName("tweet() from many threads")
+    class ConcurrentTweet {
+
+        private static final int THREADS = 8;
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        private final ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+
+        private final BlockingHealthMonitor monitor = new BlockingHealthMonitor();
+
+        @AfterEach
+        void shutdownExecutor() {
+
+            monitor.release.countDown();
+            executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("should invoke monitor only once, and make all threads wait for its result, when there is no previous tweet")
+        void tweetFirstConcurrently() throws Exception {
+
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, Clock.systemDefaultZone());
+
+            List<Future<HealthTweet>> futureTweets = tweetConcurrently(healthTweeter);
+            assertTrue(monitor.invoked.await(5, TimeUnit.SECONDS));
+            awaitAllThreadsWaiting();
+            assertFalse(futureTweets.stream().anyMatch(Future::isDone));
+
+            monitor.release.countDown();
+
+            for (Future<HealthTweet> futureTweet : futureTweets) {
+                assertEquals(BlockingHealthMonitor.RESULT, futureTweet.get(5, TimeUnit.SECONDS).getResult());
+            }
+            assertEquals(1, monitor.invocations.get());
+        }
+
+        @Test
+        @DisplayName("should invoke monitor only once, and give the previous tweet to the other threads, when the previous tweet expired")
+        void tweetExpiredConcurrently() throws Exception {
+
+            Clock clock = mock(Clock.class);
+            when(clock.millis()).thenReturn(0L);
+            HealthTweeter healthTweeter = new HealthTweeter(monitor, clock);
+            HealthTweet previousTweet = healthTweeter.setLastHealthTweet(
+                    new HealthTweet(healthTweeter.getDependency(), HealthResult.of(DependencyStatus.DEGRADED, null)));
+            when(clock.millis()).thenReturn(200000L);
+
+            List<Future<HealthTweet>> futureTweets = tweetConcurrently(healthTweeter);
+            assertTrue(monitor.invoked.await(5, TimeUnit.SECONDS));
+
+            // every thread but the one invoking the monitor is served the previous tweet without waiting
+            int previousTweets = 0;
+            for (Future<HealthTweet> futureTweet : futureTweets) {
+                try {
+                    assertEquals(previousTweet, futureTweet.get(1, TimeUnit.SECONDS));
+                    previousTweets++;
+                }
+                catch (TimeoutException e) {
+                    monitor.release.countDown();
+                    assertEquals(BlockingHealthMonitor.RESULT, futureTweet.get(5, TimeUnit.SECONDS).getResult());
+                }
+            }
+            assertEquals(THREADS - 1, previousTweets);
+            assertEquals(1, monitor.invocations.get());
+        }
+
+        /**
+         * Waits for the thread invoking the monitor to block on it, and for all the others to pile up behind it
+         */
+        private void awaitAllThreadsWaiting() {
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (threads.size() < THREADS
+                    || threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)) {
+                assertTrue(System.nanoTime() < deadline, "threads did not block on the tweeter in time");
+                Thread.yield();
+            }
+        }
+
+        private List<Future<HealthTweet>> tweetConcurrently(HealthTweeter healthTweeter) {
+
+            List<Future<HealthTweet>> futureTweets = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futureTweets.add(executor.submit(healthTweeter::tweet));
+            }
+            return futureTweets;
+        }
+    }
+
     @HealthTweetDescriptor(name = "monitor", secondsToLive = -1)
     private static class NonCachingHealthMonitor implements HealthMonitor {
 
@@ -82,4 +697,190 @@ class HealthTweeterTest {
         }
     }
 
-}
\ No newline at end of file
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 100)
+    private static class PendingHealthMonitor implements AsyncHealthMonitor {
+
+        private final List<CompletableFuture<HealthResult>> futureResults = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<HealthResult> checkAsync() {
+
+            CompletableFuture<HealthResult> futureResult = new CompletableFuture<>();
+            futureResults.add(futureResult);
+            return futureResult;
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 100)
+    private static class CompletedHealthMonitor implements AsyncHealthMonitor {
+
+        @Override
+        public CompletableFuture<HealthResult> checkAsync() {
+
+            return CompletableFuture.completedFuture(HealthResult.ok());
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = -1)
+    private static class DegradingHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public HealthResult check() {
+
+            switch (invocations.incrementAndGet()) {
+                case 1:
+                    return HealthResult.ok();
+                case 2:
+                    return HealthResult.of(DependencyStatus.DEGRADED, "degraded");
+                default:
+                    throw new IllegalStateException("down");
+            }
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 100, secondsStaleWhileRevalidate = 10)
+    private static class CountingHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private static HealthResult result(int invocation) {
+
+            return HealthResult.of(DependencyStatus.HEALTHY, "invocation " + invocation);
+        }
+
+        @Override
+        public HealthResult check() {
+
+            return result(invocations.incrementAndGet());
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 10, minSecondsToLive = 2, maxSecondsToLive = 40)
+    private static class FlappingHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private volatile DependencyStatus status = DependencyStatus.HEALTHY;
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            return HealthResult.of(status, null);
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 10, jitterPercent = 50)
+    private static class JitteringHealthMonitor implements HealthMonitor {
+
+        @Override
+        public HealthResult check() {
+
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 100)
+    private static class SharedHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private static HealthResult result(int invocation) {
+
+            return HealthResult.of(DependencyStatus.HEALTHY, "invocation " + invocation);
+        }
+
+        @Override
+        public HealthResult check() {
+
+            return result(invocations.incrementAndGet());
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = -1, timeoutMillis = 50, circuitBreakerTimeouts = 2)
+    private static class HangingHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            try {
+                TimeUnit.SECONDS.sleep(10);
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = -1, timeoutMillis = 50)
+    private static class UninterruptibleHealthMonitor implements HealthMonitor {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            boolean interrupted = false;
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    // like a blocked socket read, which ignores interrupts
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return HealthResult.ok();
+        }
+    }
+
+    @HealthTweetDescriptor(name = "monitor", secondsToLive = 100)
+    private static class BlockingHealthMonitor implements HealthMonitor {
+
+        private static final HealthResult RESULT = HealthResult.of(DependencyStatus.HEALTHY, "checked");
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private final CountDownLatch invoked = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public HealthResult check() {
+
+            invocations.incrementAndGet();
+            invoked.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return RESULT;
+        }
+    }
+
+    private static Path createTempFile() {
+
+        try {
+            return Files.createTempFile("jcanary", ".status");
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
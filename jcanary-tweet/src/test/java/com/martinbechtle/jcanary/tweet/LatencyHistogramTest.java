@@ -0,0 +1,51 @@
+package com.martinbechtle.jcanary.tweet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for {@link LatencyHistogram}
+ *
+ * @author Martin Bechtle
+ */
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class LatencyHistogramTest {
+
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    @Nested
+    @DisplayName("record(long)")
+    class Record {
+
+        @Test
+        @DisplayName("should count each duration in the first bucket whose upper bound is not lower than it")
+        void recordBuckets() {
+
+            latencyHistogram.record(-1);
+            latencyHistogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+            latencyHistogram.record(TimeUnit.MILLISECONDS.toNanos(1) + 1);
+            latencyHistogram.record(TimeUnit.MINUTES.toNanos(1));
+
+            assertEquals(2, latencyHistogram.getCount(0));
+            assertEquals(1, latencyHistogram.getCount(1));
+            assertEquals(1, latencyHistogram.getCount(latencyHistogram.getBucketCount() - 1));
+            assertEquals(Long.MAX_VALUE, latencyHistogram.getBucketUpperBoundNanos(latencyHistogram.getBucketCount() - 1));
+        }
+
+        @Test
+        @DisplayName("should keep the total count and sum of all durations")
+        void recordTotals() {
+
+            latencyHistogram.record(100);
+            latencyHistogram.record(TimeUnit.SECONDS.toNanos(2));
+
+            assertEquals(2, latencyHistogram.getCount());
+            assertEquals(TimeUnit.SECONDS.toNanos(2) + 100, latencyHistogram.getSumNanos());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.martinbechtle.jcanary.tweet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link RefreshScheduler}
+ *
+ * @author Martin Bechtle
+ */
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class RefreshSchedulerTest {
+
+    private static final long TICK_MILLIS = 5;
+
+    private RefreshScheduler refreshScheduler = new RefreshScheduler(Runnable::run, TICK_MILLIS, 8);
+
+    @AfterEach
+    void close() {
+
+        refreshScheduler.close();
+    }
+
+    @Nested
+    @DisplayName("schedule(Runnable, long)")
+    class Schedule {
+
+        @Test
+        @DisplayName("should run tasks in order of delay, including delays longer than a full rotation of the wheel")
+        void scheduleInOrder() throws InterruptedException {
+
+            List<Integer> executed = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(3);
+
+            refreshScheduler.schedule(() -> { executed.add(3); latch.countDown(); }, 25 * TICK_MILLIS);
+            refreshScheduler.schedule(() -> { executed.add(1); latch.countDown(); }, 0);
+            refreshScheduler.schedule(() -> { executed.add(2); latch.countDown(); }, 6 * TICK_MILLIS);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(asList(1, 2, 3), executed);
+        }
+
+        @Test
+        @DisplayName("should not run a task before its delay has elapsed")
+        void scheduleNotEarly() throws InterruptedException {
+
+            CountDownLatch latch = new CountDownLatch(1);
+            long start = System.nanoTime();
+
+            refreshScheduler.schedule(latch::countDown, 20 * TICK_MILLIS);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 19 * TICK_MILLIS);
+        }
+
+        @Test
+        @DisplayName("should retry a task on the next ticks, not on the wheel thread, when the executor rejects it")
+        void scheduleRejected() {
+
+            refreshScheduler.close();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            AtomicInteger rejections = new AtomicInteger();
+            refreshScheduler = new RefreshScheduler(task -> {
+                if (rejections.incrementAndGet() <= 2) {
+                    throw new RejectedExecutionException();
+                }
+                executor.execute(task);
+            }, TICK_MILLIS, 8);
+            CompletableFuture<Thread> taskThread = new CompletableFuture<>();
+
+            try {
+                refreshScheduler.schedule(() -> taskThread.complete(Thread.currentThread()), 0);
+
+                assertNotEquals("jcanary-refresh-scheduler", taskThread.join().getName());
+                assertEquals(3, rejections.get());
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should keep running tasks when the executor fails")
+        void scheduleExecutorFailure() throws InterruptedException {
+
+            refreshScheduler.close();
+            AtomicInteger failures = new AtomicInteger();
+            refreshScheduler = new RefreshScheduler(task -> {
+                if (failures.incrementAndGet() == 1) {
+                    throw new IllegalStateException();
+                }
+                task.run();
+            }, TICK_MILLIS, 8);
+            CountDownLatch latch = new CountDownLatch(2);
+
+            refreshScheduler.schedule(latch::countDown, 0);
+            refreshScheduler.schedule(latch::countDown, 0);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        @DisplayName("should discard tasks once closed")
+        void scheduleClosed() throws InterruptedException {
+
+            AtomicInteger executions = new AtomicInteger();
+            refreshScheduler.close();
+
+            refreshScheduler.schedule(executions::incrementAndGet, 0);
+
+            TimeUnit.MILLISECONDS.sleep(10 * TICK_MILLIS);
+            assertFalse(executions.get() > 0);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.Dependency;
+import com.martinbechtle.jcanary.api.DependencyImportance;
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import com.martinbechtle.jcanary.api.DependencyType;
+import com.martinbechtle.jcanary.api.HealthResult;
+import com.martinbechtle.jcanary.api.HealthTweet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link SharedStatusTable}, where each table opened on the same file stands for another process
+ *
+ * @author Martin Bechtle
+ */
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class SharedStatusTableTest {
+
+    private static final Dependency DATABASE =
+            new Dependency(DependencyImportance.PRIMARY, DependencyType.DATABASE, "database");
+
+    private static final Dependency BROKER =
+            new Dependency(DependencyImportance.SECONDARY, DependencyType.MESSAGE_CHANNEL, "broker");
+
+    private final Path file = createTempFile();
+
+    private final List<SharedStatusTable> tables = new ArrayList<>();
+
+    @AfterEach
+    void close() throws IOException {
+
+        tables.forEach(SharedStatusTable::close);
+        Files.deleteIfExists(file);
+    }
+
+    private SharedStatusTable open(int slotCount, int textBytes) {
+
+        SharedStatusTable table = new SharedStatusTable(file, slotCount, textBytes);
+        tables.add(table);
+        return table;
+    }
+
+    private static Path createTempFile() {
+
+        try {
+            return Files.createTempFile("jcanary", ".status");
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nested
+    @DisplayName("new SharedStatusTable(Path, int, int)")
+    class Open {
+
+        @Test
+        @DisplayName("should throw exception when the file was created with a different layout")
+        void openDifferentLayout() {
+
+            open(4, 16);
+
+            assertThrows(IllegalArgumentException.class, () -> open(8, 16));
+        }
+    }
+
+    @Nested
+    @DisplayName("slotOf(Dependency)")
+    class SlotOf {
+
+        @Test
+        @DisplayName("should return the same slot in every process, however many dependencies each one shared before")
+        void slotOfSameDependency() {
+
+            SharedStatusTable.Slot databaseSlot = open(4, 16).slotOf(DATABASE);
+            SharedStatusTable otherTable = open(4, 16);
+            SharedStatusTable.Slot brokerSlot = otherTable.slotOf(BROKER);
+
+            databaseSlot.write(new HealthTweet(DATABASE, HealthResult.ok(), 1000L, 10L, false), 2000L);
+
+            assertNull(brokerSlot.read());
+            SharedStatusTable.Entry entry = otherTable.slotOf(DATABASE).read();
+            assertNotNull(entry);
+            assertEquals(new HealthTweet(DATABASE, HealthResult.ok()), entry.getTweet());
+            assertEquals(1000L, entry.getTweet().getCheckedAtMillis());
+            assertEquals(10L, entry.getTweet().getDurationNanos());
+            assertTrue(entry.getTweet().isCached());
+            assertEquals(2000L, entry.getExpiryTimeMillis());
+            assertEquals(1000L, entry.getTimeToLiveMillis());
+        }
+
+        @Test
+        @DisplayName("should throw exception when all slots are claimed by other dependencies")
+        void slotOfFull() {
+
+            SharedStatusTable table = open(1, 16);
+            table.slotOf(DATABASE);
+
+            assertThrows(IllegalStateException.class, () -> table.slotOf(BROKER));
+        }
+
+        @Test
+        @DisplayName("should throw exception when the name of the dependency is too long")
+        void slotOfLongName() {
+
+            StringBuilder name = new StringBuilder();
+            while (name.length() <= SharedStatusTable.MAX_NAME_BYTES) {
+                name.append("name");
+            }
+
+            assertThrows(IllegalArgumentException.class, () -> open(4, 16).slotOf(
+                    new Dependency(DependencyImportance.PRIMARY, DependencyType.DATABASE, name.toString())));
+        }
+    }
+
+    @Nested
+    @DisplayName("Slot")
+    class SlotAccess {
+
+        @Test
+        @DisplayName("should truncate status texts longer than the text area without splitting characters")
+        void writeLongText() {
+
+            SharedStatusTable.Slot slot = open(4, 6).slotOf(DATABASE);
+
+            slot.write(new HealthTweet(DATABASE, HealthResult.of(DependencyStatus.CRITICAL, "refus\u00e9")), 0L);
+            assertEquals(HealthResult.of(DependencyStatus.CRITICAL, "refus"), slot.read().getTweet().getResult());
+
+            slot.write(new HealthTweet(DATABASE, HealthResult.of(DependencyStatus.DEGRADED, "slow")), 0L);
+            assertEquals(HealthResult.of(DependencyStatus.DEGRADED, "slow"), slot.read().getTweet().getResult());
+        }
+
+        @Test
+        @DisplayName("should grant the lease to one process at a time")
+        void tryLease() {
+
+            SharedStatusTable.Slot slot = open(4, 16).slotOf(DATABASE);
+            SharedStatusTable.Slot otherSlot = open(4, 16).slotOf(DATABASE);
+
+            FileLock lease = slot.tryLease();
+            assertNotNull(lease);
+            assertNull(otherSlot.tryLease());
+
+            slot.release(lease);
+            FileLock otherLease = otherSlot.tryLease();
+            assertNotNull(otherLease);
+            otherSlot.release(otherLease);
+        }
+    }
+}
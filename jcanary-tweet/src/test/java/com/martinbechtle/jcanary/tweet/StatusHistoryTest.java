@@ -0,0 +1,81 @@
+package com.martinbechtle.jcanary.tweet;
+
+import com.martinbechtle.jcanary.api.DependencyStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link StatusHistory}
+ *
+ * @author Martin Bechtle
+ */
+@SuppressWarnings("squid:S2187") // sonar does not recognise this as a unit test as all tests are nested
+class StatusHistoryTest {
+
+    private final StatusHistory statusHistory = new StatusHistory(3);
+
+    private final long[] checkedAtMillis = new long[3];
+
+    private final DependencyStatus[] statuses = new DependencyStatus[3];
+
+    private final long[] durationNanos = new long[3];
+
+    @Nested
+    @DisplayName("copyTo(long[], DependencyStatus[], long[])")
+    class CopyTo {
+
+        @Test
+        @DisplayName("should copy the outcomes recorded so far, oldest first")
+        void copyToNotFull() {
+
+            statusHistory.record(1000L, DependencyStatus.HEALTHY, 10L);
+            statusHistory.record(2000L, DependencyStatus.CRITICAL, 20L);
+
+            assertEquals(2, statusHistory.copyTo(checkedAtMillis, statuses, durationNanos));
+            assertArrayEquals(new long[]{ 1000L, 2000L, 0L }, checkedAtMillis);
+            assertArrayEquals(new DependencyStatus[]{ DependencyStatus.HEALTHY, DependencyStatus.CRITICAL, null },
+                    statuses);
+            assertArrayEquals(new long[]{ 10L, 20L, 0L }, durationNanos);
+        }
+
+        @Test
+        @DisplayName("should copy only the last outcomes, oldest first, once more than the capacity were recorded")
+        void copyToWrapped() {
+
+            for (int i = 1; i <= 5; i++) {
+                statusHistory.record(i * 1000L, i % 2 == 0 ? DependencyStatus.DEGRADED : DependencyStatus.HEALTHY, i);
+            }
+
+            assertEquals(3, statusHistory.copyTo(checkedAtMillis, statuses, durationNanos));
+            assertArrayEquals(new long[]{ 3000L, 4000L, 5000L }, checkedAtMillis);
+            assertArrayEquals(new DependencyStatus[]{
+                    DependencyStatus.HEALTHY, DependencyStatus.DEGRADED, DependencyStatus.HEALTHY }, statuses);
+            assertArrayEquals(new long[]{ 3L, 4L, 5L }, durationNanos);
+            assertEquals(5, statusHistory.getCount());
+        }
+
+        @Test
+        @DisplayName("should copy nothing when the capacity is zero")
+        void copyToEmpty() {
+
+            StatusHistory emptyHistory = new StatusHistory(0);
+            emptyHistory.record(1000L, DependencyStatus.HEALTHY, 10L);
+
+            assertEquals(0, emptyHistory.copyTo(new long[0], new DependencyStatus[0], new long[0]));
+            assertEquals(0, emptyHistory.getCount());
+        }
+
+        @Test
+        @DisplayName("should throw exception when the arrays are shorter than the capacity")
+        void copyToShortArrays() {
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> statusHistory.copyTo(new long[2], statuses, durationNanos));
+        }
+    }
+}